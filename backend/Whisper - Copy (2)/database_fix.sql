@@ -12,3 +12,69 @@ UPDATE users SET profile_image_url = NULL WHERE profile_image_url IS NULL;
 -- Show the current table structure
 \d users;
 
+
+-- Named unique constraints on users; registration relies on these instead of exists checks
+ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email);
+ALTER TABLE users ADD CONSTRAINT uk_users_phone_number UNIQUE (phone_number);
+ALTER TABLE users ADD CONSTRAINT uk_users_user_name UNIQUE (user_name);
+
+-- Canonical participant key for direct chats (sorted user ids joined with ':')
+ALTER TABLE chats ADD COLUMN IF NOT EXISTS participant_key TEXT;
+UPDATE chats c SET participant_key = (
+    SELECT string_agg(p.user_id::text, ':' ORDER BY p.user_id)
+    FROM chat_participents p
+    WHERE p.chat_id = c.id
+) WHERE participant_key IS NULL;
+-- Fails if duplicate chats already exist for the same users; merge those first
+ALTER TABLE chats ADD CONSTRAINT uk_chats_participant_key UNIQUE (participant_key);
+
+-- Trigram index so substring phone searches (LIKE '%123%') use an index scan; without it
+-- /user/searchPhone reads the whole users table. Not created by ddl-auto
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_phone_number_trgm ON users USING gin (phone_number gin_trgm_ops);
+
+-- One contact row per (owner, phone number); bulk import upserts against this
+ALTER TABLE contacts ADD CONSTRAINT uk_contacts_user_phone UNIQUE (user_id, phone_number);
+
+-- Group chats; direct chats keep is_group = false and have no chat_members rows
+ALTER TABLE chats ADD COLUMN IF NOT EXISTS is_group BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE chats ADD COLUMN IF NOT EXISTS name VARCHAR(255);
+CREATE INDEX IF NOT EXISTS idx_contacts_phone_number ON contacts (phone_number);
+-- chat_members (role and read marker per group member) is created by ddl-auto
+
+-- Message full-text search; the app adds the column at startup and fills it in asynchronously.
+-- CONCURRENTLY keeps message writable during the build; run these outside a transaction block
+ALTER TABLE message ADD COLUMN IF NOT EXISTS search_vector tsvector;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_message_search_vector ON message USING gin (search_vector);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_message_search_vector_null ON message (id) WHERE search_vector IS NULL;
+
+-- Phone numbers are stored in one form (PhoneNumbers.normalize: digits, keeping a leading '+').
+-- Rewrites numbers saved with spaces, dashes or brackets. Run with the application stopped
+-- (its caches hold the old values); users whose number changed log in again.
+CREATE FUNCTION pg_temp.normalize_phone(phone TEXT) RETURNS TEXT AS $$
+    SELECT CASE WHEN btrim(phone) LIKE '+%' AND regexp_replace(phone, '[^0-9]', '', 'g') <> ''
+                THEN '+' || regexp_replace(phone, '[^0-9]', '', 'g')
+                ELSE regexp_replace(phone, '[^0-9]', '', 'g') END
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Numbers that would collide with another row once normalized; merge these by hand, the
+-- updates below leave them as they are
+SELECT u.id, u.phone_number, pg_temp.normalize_phone(u.phone_number) AS normalized
+FROM users u
+WHERE u.phone_number <> pg_temp.normalize_phone(u.phone_number)
+  AND EXISTS (SELECT 1 FROM users o WHERE o.id <> u.id
+              AND pg_temp.normalize_phone(o.phone_number) = pg_temp.normalize_phone(u.phone_number));
+SELECT c.id, c.user_id, c.phone_number, pg_temp.normalize_phone(c.phone_number) AS normalized
+FROM contacts c
+WHERE c.phone_number <> pg_temp.normalize_phone(c.phone_number)
+  AND EXISTS (SELECT 1 FROM contacts o WHERE o.id <> c.id AND o.user_id = c.user_id
+              AND pg_temp.normalize_phone(o.phone_number) = pg_temp.normalize_phone(c.phone_number));
+
+UPDATE users u SET phone_number = pg_temp.normalize_phone(u.phone_number)
+WHERE u.phone_number <> pg_temp.normalize_phone(u.phone_number)
+  AND NOT EXISTS (SELECT 1 FROM users o WHERE o.id <> u.id
+                  AND pg_temp.normalize_phone(o.phone_number) = pg_temp.normalize_phone(u.phone_number));
+UPDATE contacts c SET phone_number = pg_temp.normalize_phone(c.phone_number)
+WHERE c.phone_number <> pg_temp.normalize_phone(c.phone_number)
+  AND NOT EXISTS (SELECT 1 FROM contacts o WHERE o.id <> c.id AND o.user_id = c.user_id
+                  AND pg_temp.normalize_phone(o.phone_number) = pg_temp.normalize_phone(c.phone_number));
@@ -0,0 +1,100 @@
+package com.example.Whisper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.Whisper.model.AttachmentType;
+import com.example.Whisper.model.Chat;
+import com.example.Whisper.model.Contact;
+import com.example.Whisper.model.Message;
+import com.example.Whisper.model.MessageAttachment;
+import com.example.Whisper.model.User;
+
+/**
+ * Detached entities shaped like the ones the controllers see after a load, for the
+ * JMH benchmarks. Nothing here touches a database.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static User user(long id) {
+        User user = new User();
+        ReflectionTestUtils.setField(user, "id", id);
+        user.setUserName("user" + id);
+        user.setFullname("Benchmark User " + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPhoneNumber("+9477" + String.format("%07d", id));
+        user.setOnline(id % 2 == 0);
+        user.setLastSeen(LocalDateTime.of(2025, 1, 1, 12, 0));
+        user.setDiscription("Hey there! I am using Whisper.");
+        user.setProfileImageUrl("https://cdn.example.com/profile_images/" + id + ".jpg");
+        user.setProfileImageSmallUrl("https://cdn.example.com/profile_images/" + id + "_48.jpg");
+        return user;
+    }
+
+    public static Message message(long id, Chat chat, User sender, boolean withAttachment) {
+        Message message = new Message();
+        message.setId(id);
+        message.setContent("Message number " + id + " with a typical amount of text in it.");
+        message.setTimeSend(LocalDateTime.of(2025, 1, 1, 12, 0).plusSeconds(id));
+        message.setSender(sender);
+        message.setChat(chat);
+        message.setRead(id % 3 == 0);
+        message.setDelivered(true);
+        if (withAttachment) {
+            MessageAttachment attachment = new MessageAttachment();
+            attachment.setType(AttachmentType.IMAGE);
+            attachment.setFileName("photo-" + id + ".jpg");
+            attachment.setContentType("image/jpeg");
+            attachment.setSize(245_760L);
+            attachment.setStorageKey("attachments/" + id + ".jpg");
+            attachment.setUrl("https://cdn.example.com/attachments/" + id + ".jpg");
+            attachment.setWidth(1280);
+            attachment.setHeight(960);
+            message.setAttachment(attachment);
+        }
+        return message;
+    }
+
+    // A direct chat between two users holding the given number of alternating messages
+    public static Chat directChat(long id, User first, User second, int messageCount) {
+        Chat chat = new Chat();
+        chat.setId(id);
+        Set<User> participants = new LinkedHashSet<>();
+        participants.add(first);
+        participants.add(second);
+        chat.setParticipents(participants);
+
+        List<Message> messages = new ArrayList<>(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            messages.add(message(i + 1, chat, i % 2 == 0 ? first : second, i % 10 == 0));
+        }
+        chat.setMessageList(messages);
+        return chat;
+    }
+
+    // Contacts of a user; the last one is the given phone number so lookups scan the whole set
+    public static Set<Contact> contacts(User owner, int count, String lastPhoneNumber) {
+        Set<Contact> contacts = new LinkedHashSet<>();
+        for (int i = 0; i < count - 1; i++) {
+            Contact contact = new Contact();
+            contact.setUser(owner);
+            contact.setPhoneNumber("+9471" + String.format("%07d", i));
+            contact.setContactName("Contact " + i);
+            contacts.add(contact);
+        }
+        Contact last = new Contact();
+        last.setUser(owner);
+        last.setPhoneNumber(lastPhoneNumber);
+        last.setContactName("Best Friend");
+        contacts.add(last);
+        return contacts;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.Whisper.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.Whisper.BenchmarkFixtures;
+import com.example.Whisper.dto.MessageDTO;
+import com.example.Whisper.model.Chat;
+import com.example.Whisper.model.Message;
+
+/**
+ * Entity to DTO conversion for a page of messages, as done by every message endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageConvertBenchmark {
+
+    @Param({"1", "50", "500"})
+    int pageSize;
+
+    private MessageController controller;
+    private List<Message> messages;
+
+    @Setup
+    public void setUp() {
+        // convertToDTO only reads the entity, so the controller needs none of its collaborators
+        controller = new MessageController(null, null, null, null, null);
+        Chat chat = BenchmarkFixtures.directChat(1, BenchmarkFixtures.user(1), BenchmarkFixtures.user(2), pageSize);
+        messages = chat.getMessageList();
+    }
+
+    @Benchmark
+    public List<MessageDTO> convertPage() {
+        List<MessageDTO> page = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            page.add(controller.convertToDTO(message));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.Whisper.dto;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.Whisper.BenchmarkFixtures;
+import com.example.Whisper.model.Chat;
+import com.example.Whisper.model.Contact;
+import com.example.Whisper.model.User;
+
+/**
+ * Building a ChatDTO for the chat list. The constructor converts the whole message list
+ * and scans the contacts for the other participant, so both sizes are parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatDtoBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int messages;
+
+    @Param({"10", "500"})
+    int contacts;
+
+    private Chat chat;
+    private User currentUser;
+    private Set<Contact> userContacts;
+
+    @Setup
+    public void setUp() {
+        currentUser = BenchmarkFixtures.user(1);
+        User other = BenchmarkFixtures.user(2);
+        chat = BenchmarkFixtures.directChat(1, currentUser, other, messages);
+        userContacts = BenchmarkFixtures.contacts(currentUser, contacts, other.getPhoneNumber());
+    }
+
+    @Benchmark
+    public ChatDTO construct() {
+        return new ChatDTO(chat, currentUser, userContacts);
+    }
+}
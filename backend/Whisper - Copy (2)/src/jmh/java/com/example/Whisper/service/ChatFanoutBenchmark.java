@@ -0,0 +1,158 @@
+package com.example.Whisper.service;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.user.DefaultUserDestinationResolver;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import com.example.Whisper.dto.MessageDTO;
+import com.example.Whisper.repositoty.ChatRepository;
+import com.example.Whisper.repositoty.ContactRepository;
+import com.example.Whisper.repositoty.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * One chat message fanned out to a group of {@code members} connected users, through the
+ * real simple broker and user destination handler on synchronous channels, so each
+ * invocation includes serializing the message and handing every frame to the outbound
+ * channel. {@code topic} is the path small chats take, {@code userQueues} the path large
+ * groups and chats with a blocked sender take.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatFanoutBenchmark {
+
+    private static final long CHAT_ID = 1;
+
+    @Param({"10", "100", "1000"})
+    int members;
+
+    private SimpleBrokerMessageHandler broker;
+    private UserDestinationMessageHandler userDestinationHandler;
+    private WebSocketService topicFanout;
+    private WebSocketService queueFanout;
+    private MessageDTO message;
+    private long delivered;
+
+    @Setup
+    public void setUp() {
+        ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        clientOutbound.subscribe(frame -> delivered++);
+
+        DefaultSimpUserRegistry userRegistry = new DefaultSimpUserRegistry();
+        broker = new SimpleBrokerMessageHandler(clientInbound, clientOutbound, brokerChannel, List.of("/topic", "/queue"));
+        userDestinationHandler = new UserDestinationMessageHandler(clientInbound, brokerChannel,
+                new DefaultUserDestinationResolver(userRegistry));
+        broker.start();
+        userDestinationHandler.start();
+
+        List<Object[]> participants = new ArrayList<>();
+        for (long id = 1; id <= members; id++) {
+            String phone = "+9477" + String.format("%07d", id);
+            String sessionId = "session" + id;
+            participants.add(new Object[] {id, phone});
+
+            Principal principal = () -> phone;
+            Message<byte[]> connect = frame(SimpMessageType.CONNECT, sessionId, principal, null, null);
+            userRegistry.onApplicationEvent(new SessionConnectedEvent(this, connect, principal));
+            broker.handleMessage(connect);
+            broker.handleMessage(frame(SimpMessageType.SUBSCRIBE, sessionId, principal, "topic", "/topic/chat/" + CHAT_ID));
+            broker.handleMessage(frame(SimpMessageType.SUBSCRIBE, sessionId, principal, "queue", "/queue/chat-user" + sessionId));
+        }
+
+        ChatRepository chatRepository = mock(ChatRepository.class);
+        when(chatRepository.findParticipantIdsAndPhones(anyLong())).thenReturn(participants);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(mock(SessionFactory.class));
+        ChatMembershipService chatMembershipService = new ChatMembershipService(chatRepository,
+                mock(UserRepository.class), entityManagerFactory, 100_000);
+        ContactBlockIndex contactBlockIndex = new ContactBlockIndex(mock(ContactRepository.class), 100_000);
+
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(new ObjectMapper().findAndRegisterModules());
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+        messagingTemplate.setMessageConverter(converter);
+
+        topicFanout = new WebSocketService(messagingTemplate, chatMembershipService, contactBlockIndex, userRegistry,
+                Integer.MAX_VALUE, new SimpleMeterRegistry());
+        queueFanout = new WebSocketService(messagingTemplate, chatMembershipService, contactBlockIndex, userRegistry,
+                0, new SimpleMeterRegistry());
+
+        message = new MessageDTO();
+        message.setId(42);
+        message.setChatId(CHAT_ID);
+        message.setSenderPhone("+94770000001");
+        message.setContent("Message number 42 with a typical amount of text in it.");
+        message.setTimeSend(LocalDateTime.of(2025, 1, 1, 12, 0));
+        message.setDelivered(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        userDestinationHandler.stop();
+        broker.stop();
+    }
+
+    @Benchmark
+    public long topic() {
+        topicFanout.sendMessageToChat(CHAT_ID, message);
+        return delivered;
+    }
+
+    @Benchmark
+    public long userQueues() {
+        queueFanout.sendMessageToChat(CHAT_ID, message);
+        return delivered;
+    }
+
+    private static Message<byte[]> frame(SimpMessageType type, String sessionId, Principal user,
+                                         String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setUser(user);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.Whisper.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.Whisper.dto.OtpResponse;
+import com.example.Whisper.dto.SendOtpRequest;
+import com.example.Whisper.dto.VerifyOtpRequest;
+import com.example.Whisper.model.OtpType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * OTP send and verify against a map already holding {@code pending} live codes. Sending
+ * sweeps the whole map for expired codes, so its cost grows with the number pending.
+ * Email delivery is stubbed out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OtpServiceBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    int pending;
+
+    private OtpService otpService;
+    private SendOtpRequest sendRequest;
+    private VerifyOtpRequest verifyRequest;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EmailService emailService = new EmailService(null, meterRegistry) {
+            @Override
+            public void sendOtpEmail(String toEmail, String otp, String purpose) {
+            }
+        };
+        otpService = new OtpService(emailService, null, meterRegistry, false);
+
+        for (int i = 0; i < pending; i++) {
+            SendOtpRequest request = new SendOtpRequest();
+            request.setEmail("pending" + i + "@example.com");
+            request.setType(OtpType.LOGIN);
+            otpService.sendOtp(request);
+        }
+
+        sendRequest = new SendOtpRequest();
+        sendRequest.setEmail("bench@example.com");
+        sendRequest.setType(OtpType.LOGIN);
+
+        // A wrong code leaves the stored OTP in place, so every invocation does the same work
+        verifyRequest = new VerifyOtpRequest();
+        verifyRequest.setEmail("pending0@example.com");
+        verifyRequest.setType(OtpType.LOGIN);
+        verifyRequest.setOtp("not-an-otp");
+    }
+
+    @Benchmark
+    public OtpResponse sendOtp() {
+        return otpService.sendOtp(sendRequest);
+    }
+
+    @Benchmark
+    public OtpResponse verifyOtp() {
+        return otpService.verifyOtp(verifyRequest);
+    }
+}
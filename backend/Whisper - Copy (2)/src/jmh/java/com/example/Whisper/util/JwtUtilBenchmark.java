@@ -0,0 +1,55 @@
+package com.example.Whisper.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Token generation and validation; validation runs on every authenticated request and
+ * STOMP CONNECT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "O3NpdLsbovOmzN7qM5iV8u9nA0VfN7UTR2JZHPwM6ys=");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 86_400_000);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpirationMs", 604_800_000);
+        token = jwtUtil.generateToken("+94771234567");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("+94771234567");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String getPhoneNumberFromToken() {
+        return jwtUtil.getPhoneNumberFromToken(token);
+    }
+}
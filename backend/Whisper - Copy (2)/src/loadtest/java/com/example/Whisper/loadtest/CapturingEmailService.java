@@ -0,0 +1,26 @@
+package com.example.Whisper.loadtest;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.Whisper.service.EmailService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Keeps OTPs in memory instead of mailing them, so synthetic users can finish registration
+public class CapturingEmailService extends EmailService {
+
+    private final ConcurrentHashMap<String, String> otpsByEmail = new ConcurrentHashMap<>();
+
+    public CapturingEmailService(MeterRegistry meterRegistry) {
+        super(null, meterRegistry);
+    }
+
+    @Override
+    public void sendOtpEmail(String toEmail, String otp, String purpose) {
+        otpsByEmail.put(toEmail, otp);
+    }
+
+    public String takeOtp(String email) {
+        return otpsByEmail.remove(email);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.Whisper.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.Whisper.WhisperApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Boots Whisper in-process with the loadtest profile, drives it with synthetic STOMP
+ * clients and prints delivery latency and throughput. Needs only the configured Postgres:
+ * OTP mails are captured in memory (see {@link CapturingEmailService}).
+ *
+ * Run with: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--loadtest.users=500"
+ * Any application property can be overridden the same way, e.g. --spring.datasource.url=...
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Devtools is on the test classpath; its restart class loader and file watcher only add noise
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(WhisperApplication.class)
+                .profiles("loadtest")
+                .run(args);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTestSettings settings = new LoadTestSettings(context.getEnvironment());
+            LoadTestRunner runner = new LoadTestRunner(settings, port,
+                    context.getBean(CapturingEmailService.class), context.getBean(ObjectMapper.class));
+
+            LoadTestMetrics metrics = runner.run();
+            metrics.print(System.out, settings);
+        } finally {
+            context.close();
+        }
+    }
+}
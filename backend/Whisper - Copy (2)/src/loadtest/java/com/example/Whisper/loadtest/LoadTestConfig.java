@@ -0,0 +1,19 @@
+package com.example.Whisper.loadtest;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfig {
+
+    @Bean
+    @Primary
+    public CapturingEmailService capturingEmailService(MeterRegistry meterRegistry) {
+        return new CapturingEmailService(meterRegistry);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.Whisper.loadtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Counters and the delivery latency histogram for one run. Only actions whose intended
+ * start falls inside the measurement window are counted, so warm-up traffic and
+ * messages still in flight when the window closes do not skew the results.
+ */
+class LoadTestMetrics {
+
+    // Microseconds, 3 significant digits
+    private final Recorder deliveryLatency = new Recorder(3);
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder typingSent = new LongAdder();
+    private final LongAdder typingReceived = new LongAdder();
+    private final LongAdder readsSent = new LongAdder();
+    private final LongAdder readsReceived = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder transportErrors = new LongAdder();
+
+    private volatile long windowStart = Long.MAX_VALUE;
+    private volatile long windowEnd = Long.MAX_VALUE;
+
+    void setWindow(long startNanos, long endNanos) {
+        this.windowStart = startNanos;
+        this.windowEnd = endNanos;
+    }
+
+    boolean inWindow(long nanos) {
+        return nanos - windowStart >= 0 && nanos - windowEnd < 0;
+    }
+
+    void messageSent(long sentAt) {
+        if (inWindow(sentAt)) {
+            sent.increment();
+        }
+    }
+
+    void messageDelivered(long sentAt, long receivedAt) {
+        if (inWindow(sentAt)) {
+            delivered.increment();
+            deliveryLatency.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(receivedAt - sentAt)));
+        }
+    }
+
+    void typingSent(long sentAt) {
+        if (inWindow(sentAt)) {
+            typingSent.increment();
+        }
+    }
+
+    // Typing events carry no timestamp, so they are counted by arrival time
+    void typingReceived(long receivedAt) {
+        if (receivedAt - windowStart >= 0) {
+            typingReceived.increment();
+        }
+    }
+
+    void readSent(long sentAt) {
+        if (inWindow(sentAt)) {
+            readsSent.increment();
+        }
+    }
+
+    void readReceived(long receivedAt) {
+        if (receivedAt - windowStart >= 0) {
+            readsReceived.increment();
+        }
+    }
+
+    void serverError() {
+        serverErrors.increment();
+    }
+
+    void transportError() {
+        transportErrors.increment();
+    }
+
+    void print(PrintStream out, LoadTestSettings settings) {
+        Histogram latency = deliveryLatency.getIntervalHistogram();
+        double seconds = settings.durationSeconds;
+        long sentCount = sent.sum();
+        long deliveredCount = delivered.sum();
+
+        out.println();
+        out.println("Whisper STOMP load test");
+        out.printf("  users                %d (%d direct chats)%n", settings.users, settings.users / 2);
+        out.printf("  actions/user/s       %.2f (send %d, typing %d, read %d by weight)%n",
+                settings.actionsPerSecond, settings.sendWeight, settings.typingWeight, settings.readWeight);
+        out.printf("  measured             %d s after %d s warm-up%n", settings.durationSeconds, settings.warmupSeconds);
+        out.println("Messages");
+        out.printf("  sent                 %d (%.1f/s)%n", sentCount, sentCount / seconds);
+        out.printf("  delivered            %d (%.1f/s)%n", deliveredCount, deliveredCount / seconds);
+        out.printf("  not delivered        %d%n", Math.max(0, sentCount - deliveredCount));
+        out.printf("  errors               %d server, %d transport%n", serverErrors.sum(), transportErrors.sum());
+        out.println("Delivery latency (ms, send to other participant's receipt)");
+        if (latency.getTotalCount() == 0) {
+            out.println("  no messages delivered");
+        } else {
+            out.printf("  p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f  mean %.2f%n",
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                    millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()), latency.getMean() / 1000.0);
+        }
+        out.println("Typing indicators");
+        out.printf("  sent %d, received %d%n", typingSent.sum(), typingReceived.sum());
+        out.println("Read receipts");
+        out.printf("  sent %d, received %d%n", readsSent.sum(), readsReceived.sum());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.Whisper.loadtest;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import com.example.Whisper.dto.MessageDTO;
+import com.example.Whisper.dto.TypingIndicatorDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registers the synthetic users over REST, pairs them into direct chats, connects one
+ * STOMP session per user to /ws and drives the configured send/typing/read mix.
+ *
+ * Message content carries the intended send time; since the clients run in the same JVM
+ * as the server, the other participant's receive time minus that is the end-to-end
+ * delivery latency, including the controller, the database write and the broker.
+ */
+@Slf4j
+class LoadTestRunner {
+
+    private static final String CONTENT_PREFIX = "loadtest ";
+
+    private final LoadTestSettings settings;
+    private final String webSocketUrl;
+    private final CapturingEmailService emailService;
+    private final RestClient restClient;
+    private final WebSocketStompClient stompClient;
+    private final LoadTestMetrics metrics = new LoadTestMetrics();
+
+    LoadTestRunner(LoadTestSettings settings, int port, CapturingEmailService emailService, ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.webSocketUrl = "ws://localhost:" + port + "/ws";
+        this.emailService = emailService;
+        this.restClient = RestClient.create("http://localhost:" + port);
+
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        this.stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        this.stompClient.setMessageConverter(converter);
+    }
+
+    LoadTestMetrics run() throws InterruptedException {
+        // Seconds since the epoch keep phone numbers, emails and usernames unique across runs
+        String runId = Long.toString(System.currentTimeMillis() / 1000);
+        List<SyntheticUser> users = new ArrayList<>(settings.users);
+        for (int i = 0; i < settings.users; i++) {
+            users.add(new SyntheticUser(runId, i));
+        }
+
+        ExecutorService setupExecutor = Executors.newFixedThreadPool(settings.setupThreads, daemonThreads("loadtest-setup-"));
+        try {
+            long start = System.currentTimeMillis();
+            runAll(setupExecutor, users, this::register);
+            log.info("Registered {} users in {} ms", users.size(), System.currentTimeMillis() - start);
+
+            List<SyntheticUser> firstOfPair = new ArrayList<>();
+            for (int i = 0; i < users.size(); i += 2) {
+                firstOfPair.add(users.get(i));
+            }
+            start = System.currentTimeMillis();
+            runAll(setupExecutor, firstOfPair, user -> startChat(user, users.get(user.index + 1)));
+            log.info("Started {} chats in {} ms", firstOfPair.size(), System.currentTimeMillis() - start);
+
+            start = System.currentTimeMillis();
+            runAll(setupExecutor, users, this::connect);
+            log.info("Connected {} STOMP sessions in {} ms", users.size(), System.currentTimeMillis() - start);
+        } finally {
+            setupExecutor.shutdownNow();
+        }
+
+        // SUBSCRIBE frames are not acknowledged; give the broker a moment to register them
+        Thread.sleep(1000);
+
+        try {
+            drive(users);
+        } finally {
+            for (SyntheticUser user : users) {
+                if (user.session != null && user.session.isConnected()) {
+                    user.session.disconnect();
+                }
+            }
+            stompClient.stop();
+        }
+        return metrics;
+    }
+
+    private void drive(List<SyntheticUser> users) throws InterruptedException {
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.actionsPerSecond);
+        long start = System.nanoTime();
+        long windowStart = start + TimeUnit.SECONDS.toNanos(settings.warmupSeconds);
+        long windowEnd = windowStart + TimeUnit.SECONDS.toNanos(settings.durationSeconds);
+        metrics.setWindow(windowStart, windowEnd);
+
+        ScheduledExecutorService driver = Executors.newScheduledThreadPool(settings.driverThreads, daemonThreads("loadtest-driver-"));
+        for (SyntheticUser user : users) {
+            // Spread the users over one period so they do not all fire together
+            long initialDelay = ThreadLocalRandom.current().nextLong(periodNanos);
+            user.nextActionAt = start + initialDelay;
+            driver.scheduleAtFixedRate(() -> act(user, periodNanos), initialDelay, periodNanos, TimeUnit.NANOSECONDS);
+        }
+        log.info("Driving {} users for {} s warm-up + {} s", users.size(), settings.warmupSeconds, settings.durationSeconds);
+
+        TimeUnit.NANOSECONDS.sleep(windowEnd - System.nanoTime());
+        driver.shutdownNow();
+        driver.awaitTermination(10, TimeUnit.SECONDS);
+
+        log.info("Waiting {} s for in-flight messages", settings.drainSeconds);
+        TimeUnit.SECONDS.sleep(settings.drainSeconds);
+    }
+
+    // One action of one user; exceptions are counted rather than thrown, which would cancel the schedule
+    private void act(SyntheticUser user, long periodNanos) {
+        long intendedAt = user.nextActionAt;
+        user.nextActionAt += periodNanos;
+        try {
+            int roll = ThreadLocalRandom.current().nextInt(settings.totalWeight());
+            if (roll < settings.sendWeight) {
+                MessageDTO message = new MessageDTO();
+                message.setContent(CONTENT_PREFIX + intendedAt);
+                user.session.send("/app/chat/" + user.chatId + "/send", message);
+                metrics.messageSent(intendedAt);
+            } else if (roll < settings.sendWeight + settings.typingWeight) {
+                TypingIndicatorDTO typing = new TypingIndicatorDTO();
+                typing.setTyping(true);
+                user.session.send("/app/chat/" + user.chatId + "/typing", typing);
+                metrics.typingSent(intendedAt);
+            } else if (user.lastReceivedMessageId > 0) {
+                MessageDTO read = new MessageDTO();
+                read.setId(user.lastReceivedMessageId);
+                user.session.send("/app/chat/" + user.chatId + "/read", read);
+                metrics.readSent(intendedAt);
+            }
+        } catch (RuntimeException e) {
+            metrics.transportError();
+        }
+    }
+
+    private void register(SyntheticUser user) {
+        restClient.post().uri("/auth/send-registration-otp")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("email", user.email))
+                .retrieve()
+                .toBodilessEntity();
+        String otp = emailService.takeOtp(user.email);
+        if (otp == null) {
+            throw new IllegalStateException("No OTP was sent to " + user.email);
+        }
+
+        JsonNode response = restClient.post().uri("/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "email", user.email,
+                        "phoneNumber", user.phoneNumber,
+                        "userName", user.userName,
+                        "fullname", "Load Test " + user.index,
+                        "otp", otp))
+                .retrieve()
+                .body(JsonNode.class);
+        user.token = response.get("token").asText();
+    }
+
+    private void startChat(SyntheticUser user, SyntheticUser other) {
+        JsonNode chat = restClient.post().uri("/chats/start")
+                .header("Authorization", "Bearer " + user.token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("otherUserPhone", other.phoneNumber))
+                .retrieve()
+                .body(JsonNode.class);
+        user.chatId = chat.get("id").asLong();
+        other.chatId = user.chatId;
+    }
+
+    private void connect(SyntheticUser user) {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + user.token);
+        try {
+            user.session = stompClient.connectAsync(webSocketUrl, new WebSocketHttpHeaders(), connectHeaders, new SessionHandler(user))
+                    .get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("STOMP connect failed for " + user.phoneNumber, e);
+        }
+    }
+
+    private void onMessage(SyntheticUser user, MessageDTO message) {
+        long receivedAt = System.nanoTime();
+        String content = message.getContent();
+        boolean ownMessage = user.phoneNumber.equals(message.getSenderPhone());
+
+        if (message.isRead()) {
+            // Read receipts are broadcast to both participants; count the sender's copy
+            if (ownMessage) {
+                metrics.readReceived(receivedAt);
+            }
+            return;
+        }
+        if (ownMessage || content == null || !content.startsWith(CONTENT_PREFIX)) {
+            return;
+        }
+        user.lastReceivedMessageId = message.getId();
+        metrics.messageDelivered(Long.parseLong(content.substring(CONTENT_PREFIX.length())), receivedAt);
+    }
+
+    private class SessionHandler extends StompSessionHandlerAdapter {
+
+        private final SyntheticUser user;
+
+        SessionHandler(SyntheticUser user) {
+            this.user = user;
+        }
+
+        @Override
+        public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+            String topic = "/topic/chat/" + user.chatId;
+            session.subscribe(topic, handler(MessageDTO.class, message -> onMessage(user, message)));
+            // Large groups, and chats where a member blocked the sender, fan out per member instead
+            session.subscribe("/user/queue/chat", handler(MessageDTO.class, message -> {
+                if (message.getChatId() == user.chatId) {
+                    onMessage(user, message);
+                }
+            }));
+            session.subscribe(topic + "/typing", handler(TypingIndicatorDTO.class, typing -> {
+                if (!user.phoneNumber.equals(typing.getUserPhone())) {
+                    metrics.typingReceived(System.nanoTime());
+                }
+            }));
+            session.subscribe("/user/queue/errors", handler(MessageDTO.class, error -> metrics.serverError()));
+        }
+
+        @Override
+        public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            metrics.transportError();
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            metrics.transportError();
+        }
+    }
+
+    private static <T> StompFrameHandler handler(Class<T> payloadType, Consumer<T> consumer) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return payloadType;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                consumer.accept(payloadType.cast(payload));
+            }
+        };
+    }
+
+    private static <T> void runAll(ExecutorService executor, List<T> items, Consumer<T> task) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(CompletableFuture.runAsync(() -> task.accept(item), executor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
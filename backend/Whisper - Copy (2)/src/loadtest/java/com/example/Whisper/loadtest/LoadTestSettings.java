@@ -0,0 +1,44 @@
+package com.example.Whisper.loadtest;
+
+import org.springframework.core.env.Environment;
+
+// The loadtest.* properties; defaults are in application-loadtest.properties
+class LoadTestSettings {
+
+    final int users;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final int drainSeconds;
+    final double actionsPerSecond;
+    final int sendWeight;
+    final int typingWeight;
+    final int readWeight;
+    final int setupThreads;
+    final int driverThreads;
+
+    LoadTestSettings(Environment env) {
+        // Users are paired into direct chats, so round up to an even number
+        int requested = env.getProperty("loadtest.users", Integer.class, 100);
+        this.users = requested + (requested % 2);
+        this.warmupSeconds = env.getProperty("loadtest.warmup-seconds", Integer.class, 10);
+        this.durationSeconds = env.getProperty("loadtest.duration-seconds", Integer.class, 60);
+        this.drainSeconds = env.getProperty("loadtest.drain-seconds", Integer.class, 5);
+        this.actionsPerSecond = env.getProperty("loadtest.actions-per-second", Double.class, 1.0);
+        this.sendWeight = env.getProperty("loadtest.mix.send", Integer.class, 80);
+        this.typingWeight = env.getProperty("loadtest.mix.typing", Integer.class, 15);
+        this.readWeight = env.getProperty("loadtest.mix.read", Integer.class, 5);
+        this.setupThreads = env.getProperty("loadtest.setup-threads", Integer.class, 16);
+        this.driverThreads = env.getProperty("loadtest.driver-threads", Integer.class, 8);
+
+        if (users < 2 || durationSeconds <= 0 || actionsPerSecond <= 0) {
+            throw new IllegalArgumentException("loadtest.users must be at least 2, and the duration and rate positive");
+        }
+        if (sendWeight < 0 || typingWeight < 0 || readWeight < 0 || totalWeight() == 0) {
+            throw new IllegalArgumentException("loadtest.mix weights must be non-negative and not all zero");
+        }
+    }
+
+    int totalWeight() {
+        return sendWeight + typingWeight + readWeight;
+    }
+}
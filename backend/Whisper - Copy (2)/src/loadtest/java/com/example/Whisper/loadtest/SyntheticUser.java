@@ -0,0 +1,30 @@
+package com.example.Whisper.loadtest;
+
+import org.springframework.messaging.simp.stomp.StompSession;
+
+// One registered load test user, its direct chat and its STOMP session
+class SyntheticUser {
+
+    final int index;
+    final String email;
+    final String phoneNumber;
+    final String userName;
+
+    String token;
+    long chatId;
+    StompSession session;
+
+    // Intended start of the next action; latency is measured from here, not from when the
+    // driver got round to it, so a stalled driver shows up in the numbers
+    long nextActionAt;
+
+    // Last message received from the other participant, the target of read receipts
+    volatile long lastReceivedMessageId;
+
+    SyntheticUser(String runId, int index) {
+        this.index = index;
+        this.email = "lt-" + runId + "-" + index + "@loadtest.local";
+        this.phoneNumber = "+1" + runId + String.format("%06d", index);
+        this.userName = "lt_" + runId + "_" + index;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.Whisper.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import com.example.Whisper.jfr.RepositoryEventInterceptor;
+
+/**
+ * Custom Java Flight Recorder events for the message pipeline (see the jfr package): message
+ * send, repository calls, broker fan-out, STOMP inbound handling and JWT validation.
+ *
+ * They are recorded whenever a recording is running, e.g. always on in production with
+ *   java -XX:StartFlightRecording=maxage=6h,filename=whisper.jfr -jar whisper.jar
+ * or on demand with jcmd JFR.start. Each event has a 1 ms threshold and no stack trace so an
+ * always-on recording keeps only the slow cases; lower the thresholds in a custom .jfc
+ * (jfr configure, or JDK Mission Control) to capture everything during a load test.
+ */
+@Configuration
+public class JfrConfig {
+
+    // Adds the event interceptor to every Spring Data repository proxy. It goes first in the
+    // chain so the recorded time includes the repository's own transaction
+    @Bean
+    public static BeanPostProcessor repositoryEventPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0,
+                                    new RepositoryEventInterceptor(repositoryInformation.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
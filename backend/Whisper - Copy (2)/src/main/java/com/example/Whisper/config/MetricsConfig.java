@@ -0,0 +1,100 @@
+package com.example.Whisper.config;
+
+import javax.cache.CacheManager;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+
+import com.example.Whisper.security.RateLimitFilter;
+import com.example.Whisper.service.MessageSearchService;
+import com.example.Whisper.service.ProfileImageService;
+import com.example.Whisper.service.SmsDispatchService;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Gauges over state the application already tracks: WebSocket sessions and the STOMP
+ * channel executors, the queues and counters of the background services, and the
+ * Hibernate second-level cache regions. Timers on the request paths are registered where
+ * they are measured.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder webSocketMetrics(WebSocketMessageBrokerStats brokerStats,
+                                        @Qualifier("clientInboundChannelExecutor") ThreadPoolTaskExecutor inboundExecutor,
+                                        @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outboundExecutor) {
+        return registry -> {
+            Gauge.builder("whisper.websocket.sessions", brokerStats,
+                            stats -> stats.getWebSocketSessionStats() != null ? stats.getWebSocketSessionStats().getTotalSessions() : 0)
+                    .description("Open WebSocket/SockJS sessions")
+                    .register(registry);
+            FunctionCounter.builder("whisper.websocket.stomp.connects", brokerStats,
+                            stats -> stats.getStompSubProtocolStats() != null ? stats.getStompSubProtocolStats().getTotalConnect() : 0)
+                    .description("STOMP CONNECT frames received")
+                    .register(registry);
+            FunctionCounter.builder("whisper.websocket.stomp.disconnects", brokerStats,
+                            stats -> stats.getStompSubProtocolStats() != null ? stats.getStompSubProtocolStats().getTotalDisconnect() : 0)
+                    .description("STOMP DISCONNECT frames received")
+                    .register(registry);
+
+            Gauge.builder("whisper.websocket.channel.queued", inboundExecutor, ThreadPoolTaskExecutor::getQueueSize)
+                    .tag("channel", "inbound")
+                    .description("Messages waiting on the STOMP channel executor")
+                    .register(registry);
+            Gauge.builder("whisper.websocket.channel.queued", outboundExecutor, ThreadPoolTaskExecutor::getQueueSize)
+                    .tag("channel", "outbound")
+                    .description("Messages waiting on the STOMP channel executor")
+                    .register(registry);
+            Gauge.builder("whisper.websocket.channel.active", inboundExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                    .tag("channel", "inbound")
+                    .register(registry);
+            Gauge.builder("whisper.websocket.channel.active", outboundExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                    .tag("channel", "outbound")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder backgroundQueueMetrics(RateLimitFilter rateLimitFilter, SmsDispatchService smsDispatchService,
+                                              MessageSearchService messageSearchService,
+                                              ProfileImageService profileImageService) {
+        return registry -> {
+            FunctionCounter.builder("whisper.ratelimit.rejected", rateLimitFilter, RateLimitFilter::getRejectedCount)
+                    .description("Auth requests rejected by the rate limiter")
+                    .register(registry);
+            Gauge.builder("whisper.sms.queued", smsDispatchService, SmsDispatchService::getQueuedCount)
+                    .description("SMS waiting for a dispatch thread")
+                    .register(registry);
+            Gauge.builder("whisper.search.index.pending", messageSearchService, MessageSearchService::getPendingCount)
+                    .description("Messages queued for full-text indexing")
+                    .register(registry);
+            Gauge.builder("whisper.renditions.queued", profileImageService, ProfileImageService::getQueuedCount)
+                    .description("Profile images waiting for renditions")
+                    .register(registry);
+        };
+    }
+
+    // cache.gets{result=hit|miss}, cache.puts, cache.evictions and cache.size for each region
+    // in application.conf, tagged cache=<region>. The regions are created while the
+    // EntityManagerFactory is built, hence the otherwise unused parameter
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager,
+                                               EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            for (String name : hibernateCacheManager.getCacheNames()) {
+                Cache<?, ?> cache = hibernateCacheManager.getCache(name).unwrap(Cache.class);
+                CaffeineCacheMetrics.monitor(registry, cache, name);
+            }
+        };
+    }
+}
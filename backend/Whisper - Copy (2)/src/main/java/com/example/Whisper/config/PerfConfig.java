@@ -0,0 +1,50 @@
+package com.example.Whisper.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.Whisper.perf.SlowQueryLog;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wiring for /admin/perf (see the perf package). SQL timings come from wrapping the
+ * DataSource in a datasource-proxy ProxyDataSource, which times each statement and hands
+ * it to the SlowQueryLog; the pool itself is untouched.
+ */
+@Configuration
+public class PerfConfig {
+
+    static final String PROXY_NAME = "sql-timing";
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${perf.slow-queries.max-statements:500}") int maxStatements) {
+        return new SlowQueryLog(maxStatements);
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlTimingDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !isSqlTimingProxy(bean)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(PROXY_NAME)
+                            .listener(slowQueryLog.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static boolean isSqlTimingProxy(Object bean) {
+        return bean instanceof ProxyDataSource proxy && PROXY_NAME.equals(proxy.getProxyConfig().getDataSourceName());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.Whisper.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.example.Whisper.datasource.PrimaryRepositoryReadInterceptor;
+import com.example.Whisper.datasource.ReadReplicaRouter;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sends @Transactional(readOnly = true) work to read replicas when datasource.replica.urls is
+ * set; without it Boot's single pool is used as before.
+ *
+ * The application DataSource is a LazyConnectionDataSourceProxy: a transaction only takes a
+ * physical connection at its first statement, by which time it is known to be read-only, and
+ * read-only connections come from the router's replicas. Reads outside such a transaction,
+ * writes, and reads inside a read-write transaction stay on the primary. Spring Data's
+ * inherited finders (findById, existsById) are read-only transactions of their own; called
+ * outside a service transaction they are kept on the primary by PrimaryRepositoryReadInterceptor,
+ * so only service methods annotated @Transactional(readOnly = true) read replicas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadReplicaRouter readReplicaRouter(DataSourceProperties properties, Environment environment,
+                                               @Value("${datasource.replica.urls}") List<String> replicaUrls,
+                                               @Value("${datasource.replica.username:}") String username,
+                                               @Value("${datasource.replica.password:}") String password,
+                                               @Value("${datasource.replica.connection-timeout-ms:2000}") long connectionTimeoutMs,
+                                               @Value("${datasource.replica.max-lag-ms:1000}") long maxLagMs) {
+        // Same as Boot's own pool: spring.datasource.* plus spring.datasource.hikari.*
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = new HikariDataSource();
+            primary.copyStateTo(replica);
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            if (!username.isEmpty()) {
+                replica.setUsername(username);
+                replica.setPassword(password);
+            }
+            replica.setReadOnly(true);
+            // Fail over to another replica or the primary instead of waiting out the default 30 s
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            replicas.add(replica);
+        }
+        return new ReadReplicaRouter(primary, replicas, maxLagMs);
+    }
+
+    @Bean
+    public DataSource dataSource(ReadReplicaRouter router) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(router.getPrimary());
+        dataSource.setReadOnlyDataSource(router.getReadOnlyDataSource());
+        return dataSource;
+    }
+
+    // First in every repository proxy's chain, so it runs before the repository's own transaction
+    @Bean
+    public static BeanPostProcessor primaryRepositoryReadPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0,
+                                    new PrimaryRepositoryReadInterceptor())));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -19,6 +19,9 @@ import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBr
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import com.example.Whisper.jfr.StompInboundEventInterceptor;
+import com.example.Whisper.perf.StompLatencyInterceptor;
+import com.example.Whisper.security.ChatMembershipInterceptor;
 import com.example.Whisper.util.JwtUtil;
 
 @Configuration
@@ -26,10 +29,18 @@ import com.example.Whisper.util.JwtUtil;
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtUtil jwtUtil;
+    private final ChatMembershipInterceptor chatMembershipInterceptor;
+    private final StompInboundEventInterceptor stompInboundEventInterceptor;
+    private final StompLatencyInterceptor stompLatencyInterceptor;
 
     @Autowired
-    public WebSocketConfig(JwtUtil jwtUtil) {
+    public WebSocketConfig(JwtUtil jwtUtil, ChatMembershipInterceptor chatMembershipInterceptor,
+                           StompInboundEventInterceptor stompInboundEventInterceptor,
+                           StompLatencyInterceptor stompLatencyInterceptor) {
         this.jwtUtil = jwtUtil;
+        this.chatMembershipInterceptor = chatMembershipInterceptor;
+        this.stompInboundEventInterceptor = stompInboundEventInterceptor;
+        this.stompLatencyInterceptor = stompLatencyInterceptor;
     }
 
     @Override
@@ -94,6 +105,6 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
                 return message;
             }
-        });
+        }, chatMembershipInterceptor, stompInboundEventInterceptor, stompLatencyInterceptor);
     }
 }
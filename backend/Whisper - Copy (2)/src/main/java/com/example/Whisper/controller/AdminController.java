@@ -0,0 +1,42 @@
+package com.example.Whisper.controller;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.Whisper.perf.PerfReportService;
+
+/**
+ * Operational endpoints, only for the users listed in admin.phone-numbers. With the list
+ * unset nobody is an admin.
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final PerfReportService perfReportService;
+    private final Set<String> adminPhoneNumbers;
+
+    @Autowired
+    public AdminController(PerfReportService perfReportService,
+                           @Value("${admin.phone-numbers:}") Set<String> adminPhoneNumbers) {
+        this.perfReportService = perfReportService;
+        this.adminPhoneNumbers = adminPhoneNumbers;
+    }
+
+    // Rolling p50/p95/p99 per REST mapping and STOMP destination, slowest SQL, pool and sessions
+    @GetMapping("/perf")
+    public ResponseEntity<?> getPerf(Authentication auth) {
+        if (auth == null || !adminPhoneNumbers.contains(auth.getName())) {
+            return new ResponseEntity<>("Not an admin", HttpStatus.FORBIDDEN);
+        }
+        return ResponseEntity.ok(perfReportService.report());
+    }
+}
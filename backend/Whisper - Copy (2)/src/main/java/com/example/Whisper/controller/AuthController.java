@@ -23,11 +23,13 @@ import com.example.Whisper.service.UserService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/auth")
 @CrossOrigin(origins = "*")
 @RequiredArgsConstructor
+@Slf4j
 public class AuthController {
 
     private final AuthService authService;
@@ -52,14 +54,10 @@ public class AuthController {
 
     @PostMapping("/send-registration-otp")
     public ResponseEntity<OtpResponse> sendRegistrationOtp(@Valid @RequestBody SendOtpRequest request) {
-        System.out.println("Received registration OTP request for email: " + request.getEmail());
         try {
-            OtpResponse response = authService.sendRegistrationOtp(request);
-            System.out.println("Registration OTP sent successfully");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            System.err.println("Error sending registration OTP: " + e.getMessage());
-            e.printStackTrace();
+            return ResponseEntity.ok(authService.sendRegistrationOtp(request));
+        } catch (RuntimeException e) {
+            log.warn("Sending registration OTP failed: {}", e.getMessage());
             throw e;
         }
     }
@@ -72,19 +70,10 @@ public class AuthController {
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        System.out.println("Received registration request for email: " + request.getEmail());
-        System.out.println("Username: " + request.getUserName());
-        System.out.println("Full name: " + request.getFullname());
-        System.out.println("Phone number: " + request.getPhoneNumber());
-        System.out.println("Profile Image URL: " + request.getProfileImageUrl());
-        System.out.println("Description: " + request.getDiscription());
         try {
-            AuthResponse response = authService.register(request);
-            System.out.println("Registration successful");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            System.err.println("Error during registration: " + e.getMessage());
-            e.printStackTrace();
+            return ResponseEntity.ok(authService.register(request));
+        } catch (RuntimeException e) {
+            log.warn("Registration of {} failed: {}", request.getUserName(), e.getMessage());
             throw e;
         }
     }
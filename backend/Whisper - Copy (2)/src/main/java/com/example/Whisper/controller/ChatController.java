@@ -7,13 +7,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.Whisper.dto.CreateGroupRequest;
+import com.example.Whisper.dto.GroupChatDTO;
+import com.example.Whisper.dto.GroupMemberRequest;
 import com.example.Whisper.dto.StartChatRequest;
 import com.example.Whisper.model.Chat;
 import com.example.Whisper.model.Message;
@@ -48,4 +53,39 @@ public class ChatController {
         return ResponseEntity.ok(result);
     }
 
+    @PostMapping("/group")
+    public ResponseEntity<GroupChatDTO> createGroup(Authentication auth, @RequestBody CreateGroupRequest request) {
+        GroupChatDTO group = chatService.createGroup(auth.getName(), request.getName(), request.getMemberPhones());
+        return ResponseEntity.ok(group);
+    }
+
+    @GetMapping("/group/{chatId}")
+    public ResponseEntity<GroupChatDTO> getGroup(Authentication auth, @PathVariable long chatId) {
+        return ResponseEntity.ok(chatService.getGroup(auth.getName(), chatId));
+    }
+
+    @PostMapping("/group/{chatId}/members")
+    public ResponseEntity<GroupChatDTO> addGroupMember(Authentication auth,
+                                                      @PathVariable long chatId,
+                                                      @RequestBody GroupMemberRequest request) {
+        GroupChatDTO group = chatService.addGroupMember(auth.getName(), chatId, request.getPhoneNumber());
+        return ResponseEntity.ok(group);
+    }
+
+    @DeleteMapping("/group/{chatId}/members/{phoneNumber}")
+    public ResponseEntity<GroupChatDTO> removeGroupMember(Authentication auth,
+                                                         @PathVariable long chatId,
+                                                         @PathVariable String phoneNumber) {
+        GroupChatDTO group = chatService.removeGroupMember(auth.getName(), chatId, phoneNumber);
+        return ResponseEntity.ok(group);
+    }
+
+    @PutMapping("/group/{chatId}/members/role")
+    public ResponseEntity<GroupChatDTO> updateGroupMemberRole(Authentication auth,
+                                                             @PathVariable long chatId,
+                                                             @RequestBody GroupMemberRequest request) {
+        GroupChatDTO group = chatService.updateGroupMemberRole(auth.getName(), chatId, request.getPhoneNumber(), request.getRole());
+        return ResponseEntity.ok(group);
+    }
+
 }
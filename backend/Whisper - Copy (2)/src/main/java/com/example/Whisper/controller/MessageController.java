@@ -1,5 +1,6 @@
 package com.example.Whisper.controller;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -18,30 +19,45 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.Whisper.dto.AttachmentDTO;
+import com.example.Whisper.dto.AttachmentUploadRequest;
+import com.example.Whisper.dto.AttachmentUploadStatus;
 import com.example.Whisper.dto.MessageDTO;
+import com.example.Whisper.dto.MessageSearchResultDTO;
 import com.example.Whisper.dto.SenderDTO;
 import com.example.Whisper.dto.TypingIndicatorDTO;
 import com.example.Whisper.dto.UserStatusDTO;
 import com.example.Whisper.model.Chat;
 import com.example.Whisper.model.Message;
 import com.example.Whisper.repositoty.ChatRepository;
+import com.example.Whisper.service.AttachmentUploadService;
+import com.example.Whisper.service.ChatMembershipService;
 import com.example.Whisper.service.MessageService;
 import com.example.Whisper.service.WebSocketService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
 @RestController
 @RequestMapping("/api/messages")
 @CrossOrigin(origins = "*")
+@Slf4j
 public class MessageController {
 
     private final MessageService messageService;
     private final ChatRepository chatRepository;
     private final WebSocketService webSocketService;
+    private final ChatMembershipService chatMembershipService;
+    private final AttachmentUploadService attachmentUploadService;
 
     @Autowired
-    public MessageController(MessageService messageService, ChatRepository chatRepository, WebSocketService webSocketService) {
+    public MessageController(MessageService messageService, ChatRepository chatRepository, WebSocketService webSocketService,
+                             ChatMembershipService chatMembershipService, AttachmentUploadService attachmentUploadService) {
         this.messageService = messageService;
         this.chatRepository = chatRepository;
         this.webSocketService = webSocketService;
+        this.chatMembershipService = chatMembershipService;
+        this.attachmentUploadService = attachmentUploadService;
     }
 
     @PostMapping("/chat/{chatId}/send")
@@ -49,7 +65,9 @@ public class MessageController {
                                          @RequestBody MessageDTO messageDTO,
                                          Authentication auth) {
         try {
-            System.out.println("Received request - ChatId: " + chatId + ", Content: " + messageDTO.getContent());
+            if (auth == null || !chatMembershipService.isParticipant(chatId, auth.getName())) {
+                return new ResponseEntity<>("You are not a participant of this chat", HttpStatus.FORBIDDEN);
+            }
 
             // Get chat from database
             Chat chat = chatRepository.findById(chatId)
@@ -72,18 +90,78 @@ public class MessageController {
             return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("Sending to chat {} failed: {}", chatId, e.getMessage());
             return new ResponseEntity<>("Error sending message: " + e.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
 
+    // Start a resumable attachment upload; chunks then go to PUT /attachments/{uploadId}?offset=
+    @PostMapping("/chat/{chatId}/attachments")
+    public ResponseEntity<?> startAttachmentUpload(@PathVariable long chatId,
+                                                   @RequestBody AttachmentUploadRequest request,
+                                                   Authentication auth) {
+        if (auth == null) {
+            return new ResponseEntity<>("Authentication required", HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            AttachmentUploadStatus status = attachmentUploadService.start(auth.getName(), chatId, request);
+            return new ResponseEntity<>(status, HttpStatus.CREATED);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error starting upload: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Current offset of an upload, for resuming after a reconnect
+    @GetMapping("/attachments/{uploadId}")
+    public ResponseEntity<?> getAttachmentUpload(@PathVariable String uploadId, Authentication auth) {
+        if (auth == null) {
+            return new ResponseEntity<>("Authentication required", HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            return new ResponseEntity<>(attachmentUploadService.getStatus(auth.getName(), uploadId), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error reading upload: " + e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // Raw chunk bytes in the request body, written straight to disk at the given offset
+    @PutMapping("/attachments/{uploadId}")
+    public ResponseEntity<?> uploadAttachmentChunk(@PathVariable String uploadId,
+                                                   @RequestParam long offset,
+                                                   HttpServletRequest request,
+                                                   Authentication auth) {
+        if (auth == null) {
+            return new ResponseEntity<>("Authentication required", HttpStatus.UNAUTHORIZED);
+        }
+        try (InputStream content = request.getInputStream()) {
+            AttachmentUploadStatus status = attachmentUploadService.writeChunk(auth.getName(), uploadId, offset, content);
+            return new ResponseEntity<>(status, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error writing chunk: " + e.getMessage(), HttpStatus.CONFLICT);
+        }
+    }
+
+    // Finish the upload: the attachment message is created and broadcast only now
+    @PostMapping("/attachments/{uploadId}/complete")
+    public ResponseEntity<?> completeAttachmentUpload(@PathVariable String uploadId, Authentication auth) {
+        if (auth == null) {
+            return new ResponseEntity<>("Authentication required", HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            Message savedMessage = attachmentUploadService.complete(auth.getName(), uploadId);
+            MessageDTO responseDTO = convertToDTO(savedMessage);
+            webSocketService.sendMessageToChat(responseDTO.getChatId(), responseDTO);
+            return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error completing upload: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     // Simple send message (without specific chat)
     @PostMapping("/send")
     public ResponseEntity<?> sendSimpleMessage(@RequestBody MessageDTO messageDTO,
                                                @RequestParam String phone) {
         try {
-            System.out.println("Received simple message - Content: " + messageDTO.getContent() + ", Phone: " + phone);
-
             // Create message
             Message message = new Message();
             message.setContent(messageDTO.getContent());
@@ -97,7 +175,7 @@ public class MessageController {
             return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("Sending simple message failed: {}", e.getMessage());
             return new ResponseEntity<>("Error sending message: " + e.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
@@ -162,6 +240,16 @@ public class MessageController {
         }
     }
 
+    // Full-text search over the caller's chats, best matches first
+    @GetMapping("/search")
+    public ResponseEntity<List<MessageSearchResultDTO>> searchMessages(Authentication auth,
+                                                                       @RequestParam String query,
+                                                                       @RequestParam(defaultValue = "0") int page,
+                                                                       @RequestParam(defaultValue = "20") int size) {
+        List<MessageSearchResultDTO> results = messageService.searchMessages(auth.getName(), query, page, size);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     @PutMapping("/{messageId}/read")
     public ResponseEntity<Message> markAsRead(@PathVariable long messageId) {
         try {
@@ -232,7 +320,8 @@ public class MessageController {
         }
     }
 
-    private MessageDTO convertToDTO(Message message) {
+    // Package-private so the JMH benchmarks can call it
+    MessageDTO convertToDTO(Message message) {
         MessageDTO dto = new MessageDTO();
         dto.setId(message.getId());
         dto.setContent(message.getContent());
@@ -252,6 +341,7 @@ public class MessageController {
                 message.getSender().getDiscription(),
                 message.getSender().getProfileImageUrl()
             );
+            senderDTO.setProfileImageSmallUrl(message.getSender().getProfileImageSmallUrl());
             dto.setSender(senderDTO);
         }
         if (message.getChat() != null) {
@@ -259,6 +349,7 @@ public class MessageController {
         }
         dto.setRead(message.isRead());
         dto.setDelivered(message.isDelivered());
+        dto.setAttachment(AttachmentDTO.of(message.getAttachment()));
         return dto;
     }
 }
\ No newline at end of file
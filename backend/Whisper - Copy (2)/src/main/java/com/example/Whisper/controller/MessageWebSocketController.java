@@ -10,6 +10,7 @@ import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
+import com.example.Whisper.dto.AttachmentDTO;
 import com.example.Whisper.dto.MessageDTO;
 import com.example.Whisper.dto.SenderDTO;
 import com.example.Whisper.dto.TypingIndicatorDTO;
@@ -17,6 +18,7 @@ import com.example.Whisper.dto.UserStatusDTO;
 import com.example.Whisper.model.Chat;
 import com.example.Whisper.model.Message;
 import com.example.Whisper.repositoty.ChatRepository;
+import com.example.Whisper.service.ChatMembershipService;
 import com.example.Whisper.service.MessageService;
 import com.example.Whisper.service.WebSocketService;
 
@@ -27,16 +29,19 @@ public class MessageWebSocketController {
     private final WebSocketService webSocketService;
     private final ChatRepository chatRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ChatMembershipService chatMembershipService;
 
     @Autowired
     public MessageWebSocketController(MessageService messageService,
                                       WebSocketService webSocketService,
                                       ChatRepository chatRepository,
-                                      SimpMessagingTemplate messagingTemplate) {
+                                      SimpMessagingTemplate messagingTemplate,
+                                      ChatMembershipService chatMembershipService) {
         this.messageService = messageService;
         this.webSocketService = webSocketService;
         this.chatRepository = chatRepository;
         this.messagingTemplate = messagingTemplate;
+        this.chatMembershipService = chatMembershipService;
     }
 
     @MessageMapping("/chat/{chatId}/send")
@@ -44,6 +49,10 @@ public class MessageWebSocketController {
                             @Payload MessageDTO messageDTO,
                             Principal principal) {
         try {
+            if (!chatMembershipService.isParticipant(chatId, principal.getName())) {
+                throw new RuntimeException("You are not a participant of this chat");
+            }
+
             // Get chat from database
             Chat chat = chatRepository.findById(chatId)
                     .orElseThrow(() -> new RuntimeException("Chat not found"));
@@ -127,6 +136,7 @@ public class MessageWebSocketController {
                 message.getSender().getDiscription(),
                 message.getSender().getProfileImageUrl()
             );
+            senderDTO.setProfileImageSmallUrl(message.getSender().getProfileImageSmallUrl());
             dto.setSender(senderDTO);
         }
         if (message.getChat() != null) {
@@ -134,6 +144,7 @@ public class MessageWebSocketController {
         }
         dto.setRead(message.isRead());
         dto.setDelivered(message.isDelivered());
+        dto.setAttachment(AttachmentDTO.of(message.getAttachment()));
         return dto;
     }
 }
\ No newline at end of file
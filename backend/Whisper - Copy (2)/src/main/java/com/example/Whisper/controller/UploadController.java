@@ -1,6 +1,7 @@
 package com.example.Whisper.controller;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,42 +16,50 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import com.example.Whisper.service.MediaStorage;
+import com.example.Whisper.service.ProfileImageService;
+import com.example.Whisper.service.StoredMedia;
+
+import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/api/upload")
 @CrossOrigin(origins = "*")
+@Slf4j
 public class UploadController {
 
     private Cloudinary cloudinary;
+    private final MediaStorage mediaStorage;
+    private final ProfileImageService profileImageService;
 
     @Autowired
-    public UploadController(Cloudinary cloudinary) {
+    public UploadController(Cloudinary cloudinary, MediaStorage mediaStorage, ProfileImageService profileImageService) {
         this.cloudinary = cloudinary;
+        this.mediaStorage = mediaStorage;
+        this.profileImageService = profileImageService;
     }
 
     @PostMapping("/profile")
     public ResponseEntity<?> uploadProfile(Authentication auth, @RequestParam("file") MultipartFile file) {
         try {
-            // Debug logging
-            System.out.println("Upload request received");
-            System.out.println("Authentication: " + (auth != null ? auth.getName() : "null"));
-            System.out.println("File name: " + file.getOriginalFilename());
-            System.out.println("File size: " + file.getSize());
+            log.debug("Profile upload from {}: {} ({} bytes)",
+                    auth != null ? auth.getName() : null, file.getOriginalFilename(), file.getSize());
 
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(),
-                    ObjectUtils.asMap("folder", "profile_pictures"));
+            // Stream from the multipart part; never pull the whole file into memory.
+            // Renditions are generated in the background
+            StoredMedia media;
+            try (InputStream content = file.getInputStream()) {
+                media = profileImageService.upload(content, file.getContentType());
+            }
 
-            System.out.println("Upload successful: " + uploadResult.get("secure_url"));
-            System.out.println("Cloudinary public ID: " + uploadResult.get("public_id"));
-            return ResponseEntity.ok(uploadResult.get("secure_url"));
+            log.debug("Profile upload stored as {}", media.getKey());
+            return ResponseEntity.ok(media.getUrl());
 
         } catch (IOException e) {
-            System.err.println("Upload failed: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Profile upload failed", e);
             return ResponseEntity.status(500).body("Upload failed: " + e.getMessage());
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error during profile upload", e);
             return ResponseEntity.status(500).body("Upload failed: " + e.getMessage());
         }
     }
@@ -58,20 +67,18 @@ public class UploadController {
     @PostMapping("/test-upload")
     public ResponseEntity<?> testUpload(@RequestParam("file") MultipartFile file) {
         try {
-            System.out.println("Test upload request received");
-            System.out.println("File name: " + file.getOriginalFilename());
-            System.out.println("File size: " + file.getSize());
+            log.debug("Test upload: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
 
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(),
-                    ObjectUtils.asMap("folder", "test_uploads"));
+            StoredMedia media;
+            try (InputStream content = file.getInputStream()) {
+                media = mediaStorage.store(content, "test_uploads", file.getContentType());
+            }
 
-            System.out.println("Test upload successful: " + uploadResult.get("secure_url"));
-            System.out.println("Cloudinary public ID: " + uploadResult.get("public_id"));
-            return ResponseEntity.ok(uploadResult.get("secure_url"));
+            log.debug("Test upload stored as {}", media.getKey());
+            return ResponseEntity.ok(media.getUrl());
 
         } catch (Exception e) {
-            System.err.println("Test upload failed: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Test upload failed", e);
             return ResponseEntity.status(500).body("Test upload failed: " + e.getMessage());
         }
     }
@@ -79,16 +86,13 @@ public class UploadController {
     @PostMapping("/test-cloudinary-config")
     public ResponseEntity<?> testCloudinaryConfig() {
         try {
-            System.out.println("Testing Cloudinary configuration...");
-            
             // Try to get account info to verify configuration
             Map result = cloudinary.api().ping(ObjectUtils.emptyMap());
-            System.out.println("Cloudinary ping successful: " + result);
-            
+            log.info("Cloudinary ping successful: {}", result);
+
             return ResponseEntity.ok("Cloudinary configuration is working: " + result);
         } catch (Exception e) {
-            System.err.println("Cloudinary configuration test failed: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Cloudinary configuration test failed", e);
             return ResponseEntity.status(500).body("Cloudinary configuration test failed: " + e.getMessage());
         }
     }
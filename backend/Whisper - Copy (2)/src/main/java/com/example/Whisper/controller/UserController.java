@@ -21,10 +21,14 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.Whisper.dto.ChatDTO;
 import com.example.Whisper.dto.ContactDTO;
+import com.example.Whisper.dto.ContactImportEntry;
+import com.example.Whisper.dto.ContactImportResult;
 import com.example.Whisper.dto.ContactRequest;
+import com.example.Whisper.dto.UserSearchDTO;
 import com.example.Whisper.model.Contact;
 import com.example.Whisper.model.User;
 import com.example.Whisper.repositoty.UserRepository;
+import com.example.Whisper.service.ContactService;
 import com.example.Whisper.service.UserService;
 
 @RestController
@@ -34,22 +38,27 @@ public class UserController {
 
     private final UserService userService;
     private final UserRepository userRepository;
+    private final ContactService contactService;
 
     @Autowired
-    public UserController(UserService userService, UserRepository userRepository) {
+    public UserController(UserService userService, UserRepository userRepository, ContactService contactService) {
         this.userRepository = userRepository;
         this.userService = userService;
+        this.contactService = contactService;
     }
 
-//    @GetMapping("/search")
-//    public ResponseEntity<List<User>> searchPhone(@RequestParam String phoneNumber) {
-//        List<User> userList = userService.findAllByPhoneNumber(phoneNumber);
-//        return ResponseEntity.ok(userList);
-//    }
+    // Typeahead over usernames and full names
+    @GetMapping("/search")
+    public ResponseEntity<List<UserSearchDTO>> searchByName(@RequestParam String query,
+                                                            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(userService.searchByName(query, limit));
+    }
 
     @GetMapping("/searchPhone")
-    public ResponseEntity<List<User>> findPhone(@RequestParam String phoneNumber) {
-        List<User> users = userRepository.findByPhoneNumberContaining(phoneNumber);
+    public ResponseEntity<List<UserSearchDTO>> findPhone(@RequestParam String phoneNumber,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "20") int size) {
+        List<UserSearchDTO> users = userService.searchByPhoneNumber(phoneNumber, page, size);
         return ResponseEntity.ok(users);
     }
 
@@ -66,6 +75,12 @@ public class UserController {
         return ResponseEntity.ok(contact);
     }
 
+    @PostMapping("/importContacts")
+    public ResponseEntity<ContactImportResult> importContacts(Authentication auth, @RequestBody List<ContactImportEntry> entries) {
+        ContactImportResult result = contactService.importContacts(auth.getName(), entries);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/getcontacts")
     public ResponseEntity<Set<ContactDTO>> getAllContacts(Authentication auth) {
         Set<ContactDTO> contactList = userService.getAllContacts(auth.getName());
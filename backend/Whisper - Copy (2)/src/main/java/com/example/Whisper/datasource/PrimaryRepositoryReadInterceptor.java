@@ -0,0 +1,24 @@
+package com.example.Whisper.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Spring Data runs findById, existsById and query methods in read-only transactions of their own.
+// Called outside a service transaction they are usually the read half of a read-modify-write, so
+// they read the primary; only read-only transactions declared by services go to replicas
+public class PrimaryRepositoryReadInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive() || ReadReplicaRouter.isPrimaryOnly()) {
+            return invocation.proceed();
+        }
+        ReadReplicaRouter.PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return invocation.proceed();
+        } finally {
+            ReadReplicaRouter.PRIMARY_ONLY.remove();
+        }
+    }
+}
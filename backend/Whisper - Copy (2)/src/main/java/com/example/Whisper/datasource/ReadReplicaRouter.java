@@ -0,0 +1,150 @@
+package com.example.Whisper.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns the primary and replica connection pools and picks a replica for read-only work
+ * (see ReadReplicaConfig). Replicas are checked every datasource.replica.check-interval-ms:
+ * one that cannot be reached, or whose replay lag exceeds datasource.replica.max-lag-ms,
+ * is skipped until a later check passes. A replica that fails to hand out a connection is
+ * skipped straight away. Replicas are first checked one interval after startup and reads
+ * use the primary until then, so startup work never sees a stale replica. With no usable
+ * replica reads also use the primary, as do repository calls made outside a transaction
+ * (see PrimaryRepositoryReadInterceptor).
+ */
+@Slf4j
+public class ReadReplicaRouter {
+
+    // Lag is 0 when the server is not a standby or has replayed everything it received; an idle
+    // primary does not make the replay timestamp look old
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    // Set while a repository called outside a transaction runs its own read-only transaction
+    static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final DataSource readOnlyDataSource = new ReadOnlyDataSource();
+
+    public ReadReplicaRouter(HikariDataSource primary, List<HikariDataSource> replicas, long maxLagMillis) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    // Hands out replica connections, or primary connections when no replica is usable
+    public DataSource getReadOnlyDataSource() {
+        return readOnlyDataSource;
+    }
+
+    @Scheduled(initialDelayString = "${datasource.replica.check-interval-ms:5000}",
+            fixedDelayString = "${datasource.replica.check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean usable;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery(LAG_QUERY)) {
+                result.next();
+                long lagMillis = (long) result.getDouble(1);
+                usable = lagMillis <= maxLagMillis;
+                if (!usable && replica.usable) {
+                    log.warn("Replica {} is {} ms behind, reading from the others until it catches up",
+                            replica.dataSource.getPoolName(), lagMillis);
+                }
+            } catch (SQLException | RuntimeException e) {
+                usable = false;
+                if (replica.usable) {
+                    log.warn("Replica {} is unreachable: {}", replica.dataSource.getPoolName(), e.getMessage());
+                }
+            }
+            if (usable && !replica.usable) {
+                log.info("Replica {} is in use for reads", replica.dataSource.getPoolName());
+            }
+            replica.usable = usable;
+        }
+    }
+
+    // Number of replicas currently used for reads
+    public int getUsableReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.usable).count();
+    }
+
+    @PreDestroy
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    static boolean isPrimaryOnly() {
+        return PRIMARY_ONLY.get() != null;
+    }
+
+    private Connection getReadOnlyConnection() throws SQLException {
+        if (isPrimaryOnly()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.usable) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                // Hikari reports a pool that cannot start as a RuntimeException
+                replica.usable = false;
+                log.warn("Replica {} failed to give a connection, skipping it: {}",
+                        replica.dataSource.getPoolName(), e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean usable;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final class ReadOnlyDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return getReadOnlyConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new UnsupportedOperationException("Replica connections use the configured credentials");
+        }
+    }
+}
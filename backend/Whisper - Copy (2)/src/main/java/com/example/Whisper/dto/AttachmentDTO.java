@@ -0,0 +1,51 @@
+package com.example.Whisper.dto;
+
+import com.example.Whisper.model.MessageAttachment;
+
+public class AttachmentDTO {
+    private String type;
+    private String fileName;
+    private String contentType;
+    private Long size;
+    private String url;
+    private Integer width;
+    private Integer height;
+
+    public AttachmentDTO() {}
+
+    public AttachmentDTO(MessageAttachment attachment) {
+        this.type = attachment.getType() != null ? attachment.getType().name() : null;
+        this.fileName = attachment.getFileName();
+        this.contentType = attachment.getContentType();
+        this.size = attachment.getSize();
+        this.url = attachment.getUrl();
+        this.width = attachment.getWidth();
+        this.height = attachment.getHeight();
+    }
+
+    // Hibernate leaves an embedded value null when all its columns are null
+    public static AttachmentDTO of(MessageAttachment attachment) {
+        return attachment != null && attachment.getUrl() != null ? new AttachmentDTO(attachment) : null;
+    }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public Long getSize() { return size; }
+    public void setSize(Long size) { this.size = size; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public Integer getWidth() { return width; }
+    public void setWidth(Integer width) { this.width = width; }
+
+    public Integer getHeight() { return height; }
+    public void setHeight(Integer height) { this.height = height; }
+}
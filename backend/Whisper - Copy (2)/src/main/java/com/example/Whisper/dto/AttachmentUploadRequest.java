@@ -0,0 +1,20 @@
+package com.example.Whisper.dto;
+
+public class AttachmentUploadRequest {
+    private String fileName;
+    private String contentType;
+    private long size;
+    private String caption;
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public String getCaption() { return caption; }
+    public void setCaption(String caption) { this.caption = caption; }
+}
@@ -0,0 +1,28 @@
+package com.example.Whisper.dto;
+
+// Where a resumable upload stands: the client sends its next chunk at offset
+public class AttachmentUploadStatus {
+    private String uploadId;
+    private long offset;
+    private long size;
+    private long maxChunkSize;
+
+    public AttachmentUploadStatus(String uploadId, long offset, long size, long maxChunkSize) {
+        this.uploadId = uploadId;
+        this.offset = offset;
+        this.size = size;
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    public String getUploadId() { return uploadId; }
+    public void setUploadId(String uploadId) { this.uploadId = uploadId; }
+
+    public long getOffset() { return offset; }
+    public void setOffset(long offset) { this.offset = offset; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public long getMaxChunkSize() { return maxChunkSize; }
+    public void setMaxChunkSize(long maxChunkSize) { this.maxChunkSize = maxChunkSize; }
+}
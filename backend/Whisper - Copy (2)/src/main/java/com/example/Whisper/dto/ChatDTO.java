@@ -11,6 +11,8 @@ import com.example.Whisper.model.User;
 
 public class ChatDTO {
     private long id;
+    private boolean group;
+    private String name; // Group name, null for direct chats
     private List<MessageDTO> messageList;
     private MessageDTO lastMessage;
     private String otherParticipantPhone;
@@ -19,6 +21,7 @@ public class ChatDTO {
     private String otherParticipantLastSeen;
     private boolean otherParticipantOnline;// Added last seen for the other participant
     private String otherParticipantProfileImageUrl; // Added profile image URL for the other participant
+    private String otherParticipantProfileImageSmallUrl; // 48 px rendition for the chat list
 
     public ChatDTO(Chat chat, User currentUser, Set<Contact> userContacts) {
         this.id = chat.getId();
@@ -30,6 +33,13 @@ public class ChatDTO {
             this.lastMessage = convertToMessageDTO(chat.getLastMessage());
         }
         
+        this.group = chat.isGroup();
+        this.name = chat.getName();
+        if (group) {
+            // Group members are served by the group endpoint; skip loading the participants here
+            return;
+        }
+
         // Find the other participant
         User otherParticipant = chat.getParticipents().stream()
                 .filter(participant -> !participant.getPhoneNumber().equals(currentUser.getPhoneNumber()))
@@ -43,6 +53,7 @@ public class ChatDTO {
                 otherParticipant.getLastSeen().toString() : null;
             this.otherParticipantOnline = otherParticipant.isOnline();
             this.otherParticipantProfileImageUrl = otherParticipant.getProfileImageUrl(); // Set profile image URL
+            this.otherParticipantProfileImageSmallUrl = otherParticipant.getProfileImageSmallUrl();
             
             // Check if other participant is in contacts
             this.contactName = userContacts.stream()
@@ -73,6 +84,7 @@ public class ChatDTO {
                 message.getSender().getDiscription(),
                 message.getSender().getProfileImageUrl()
             );
+            senderDTO.setProfileImageSmallUrl(message.getSender().getProfileImageSmallUrl());
             dto.setSender(senderDTO);
         }
         if (message.getChat() != null) {
@@ -80,6 +92,7 @@ public class ChatDTO {
         }
         dto.setRead(message.isRead());
         dto.setDelivered(message.isDelivered());
+        dto.setAttachment(AttachmentDTO.of(message.getAttachment()));
         return dto;
     }
 
@@ -92,6 +105,22 @@ public class ChatDTO {
         this.id = id;
     }
 
+    public boolean isGroup() {
+        return group;
+    }
+
+    public void setGroup(boolean group) {
+        this.group = group;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
     public List<MessageDTO> getMessageList() {
         return messageList;
     }
@@ -155,4 +184,12 @@ public class ChatDTO {
     public void setOtherParticipantProfileImageUrl(String otherParticipantProfileImageUrl) {
         this.otherParticipantProfileImageUrl = otherParticipantProfileImageUrl;
     }
+
+    public String getOtherParticipantProfileImageSmallUrl() {
+        return otherParticipantProfileImageSmallUrl;
+    }
+
+    public void setOtherParticipantProfileImageSmallUrl(String otherParticipantProfileImageSmallUrl) {
+        this.otherParticipantProfileImageSmallUrl = otherParticipantProfileImageSmallUrl;
+    }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ public class ContactDTO {
     private String contactName;
     private Boolean isBlocked;
     private String profileImageUrl;
+    private String profileImageSmallUrl;
 
     public ContactDTO() {}
 
@@ -18,6 +19,7 @@ public class ContactDTO {
         this.contactName = contact.getContactName();
         this.isBlocked = contact.isBlocked();
         this.profileImageUrl = contactUser != null ? contactUser.getProfileImageUrl() : null;
+        this.profileImageSmallUrl = contactUser != null ? contactUser.getProfileImageSmallUrl() : null;
     }
 
     // Getters and Setters
@@ -60,4 +62,12 @@ public class ContactDTO {
     public void setProfileImageUrl(String profileImageUrl) {
         this.profileImageUrl = profileImageUrl;
     }
+
+    public String getProfileImageSmallUrl() {
+        return profileImageSmallUrl;
+    }
+
+    public void setProfileImageSmallUrl(String profileImageSmallUrl) {
+        this.profileImageSmallUrl = profileImageSmallUrl;
+    }
 }
@@ -0,0 +1,22 @@
+package com.example.Whisper.dto;
+
+public class ContactImportEntry {
+    private String phoneNumber;
+    private String contactName;
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+
+    public String getContactName() {
+        return contactName;
+    }
+
+    public void setContactName(String contactName) {
+        this.contactName = contactName;
+    }
+}
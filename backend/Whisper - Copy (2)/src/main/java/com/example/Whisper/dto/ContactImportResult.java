@@ -0,0 +1,29 @@
+package com.example.Whisper.dto;
+
+import java.util.List;
+
+public class ContactImportResult {
+    private int imported;
+    private List<String> registeredPhoneNumbers; // Imported numbers that belong to Whisper users
+
+    public ContactImportResult(int imported, List<String> registeredPhoneNumbers) {
+        this.imported = imported;
+        this.registeredPhoneNumbers = registeredPhoneNumbers;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public List<String> getRegisteredPhoneNumbers() {
+        return registeredPhoneNumbers;
+    }
+
+    public void setRegisteredPhoneNumbers(List<String> registeredPhoneNumbers) {
+        this.registeredPhoneNumbers = registeredPhoneNumbers;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.Whisper.dto;
+
+import java.util.List;
+
+public class CreateGroupRequest {
+    private String name;
+    private List<String> memberPhones;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<String> getMemberPhones() {
+        return memberPhones;
+    }
+
+    public void setMemberPhones(List<String> memberPhones) {
+        this.memberPhones = memberPhones;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.Whisper.dto;
+
+import java.util.List;
+
+public class GroupChatDTO {
+    private long id;
+    private String name;
+    private List<Member> members;
+
+    public GroupChatDTO(long id, String name, List<Member> members) {
+        this.id = id;
+        this.name = name;
+        this.members = members;
+    }
+
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public List<Member> getMembers() { return members; }
+    public void setMembers(List<Member> members) { this.members = members; }
+
+    public static class Member {
+        private String phoneNumber;
+        private String fullname;
+        private String profileImageUrl;
+        private String profileImageSmallUrl;
+        private String role;
+
+        public Member(String phoneNumber, String fullname, String profileImageUrl, String profileImageSmallUrl, String role) {
+            this.phoneNumber = phoneNumber;
+            this.fullname = fullname;
+            this.profileImageUrl = profileImageUrl;
+            this.profileImageSmallUrl = profileImageSmallUrl;
+            this.role = role;
+        }
+
+        public String getPhoneNumber() { return phoneNumber; }
+        public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+
+        public String getFullname() { return fullname; }
+        public void setFullname(String fullname) { this.fullname = fullname; }
+
+        public String getProfileImageUrl() { return profileImageUrl; }
+        public void setProfileImageUrl(String profileImageUrl) { this.profileImageUrl = profileImageUrl; }
+
+        public String getProfileImageSmallUrl() { return profileImageSmallUrl; }
+        public void setProfileImageSmallUrl(String profileImageSmallUrl) { this.profileImageSmallUrl = profileImageSmallUrl; }
+
+        public String getRole() { return role; }
+        public void setRole(String role) { this.role = role; }
+    }
+}
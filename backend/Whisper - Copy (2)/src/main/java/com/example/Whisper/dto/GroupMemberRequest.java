@@ -0,0 +1,24 @@
+package com.example.Whisper.dto;
+
+import com.example.Whisper.model.ChatRole;
+
+public class GroupMemberRequest {
+    private String phoneNumber;
+    private ChatRole role;
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+
+    public ChatRole getRole() {
+        return role;
+    }
+
+    public void setRole(ChatRole role) {
+        this.role = role;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.Whisper.dto;
+
+public class LatencySummaryDTO {
+    private String name; // "GET /api/messages/chat/{chatId}" or "SEND /app/chat/{id}/send"
+    private long count;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+
+    public LatencySummaryDTO(String name, long count, double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+        this.name = name;
+        this.count = count;
+        this.p50Ms = p50Ms;
+        this.p95Ms = p95Ms;
+        this.p99Ms = p99Ms;
+        this.maxMs = maxMs;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public double getP50Ms() { return p50Ms; }
+    public void setP50Ms(double p50Ms) { this.p50Ms = p50Ms; }
+
+    public double getP95Ms() { return p95Ms; }
+    public void setP95Ms(double p95Ms) { this.p95Ms = p95Ms; }
+
+    public double getP99Ms() { return p99Ms; }
+    public void setP99Ms(double p99Ms) { this.p99Ms = p99Ms; }
+
+    public double getMaxMs() { return maxMs; }
+    public void setMaxMs(double maxMs) { this.maxMs = maxMs; }
+}
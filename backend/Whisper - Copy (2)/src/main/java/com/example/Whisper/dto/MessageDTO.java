@@ -11,6 +11,7 @@ public class MessageDTO {
     private boolean read;
     private boolean delivered;
     private SenderDTO sender; // Added sender information
+    private AttachmentDTO attachment; // Null for plain text messages
 
     // Constructors, getters, and setters
     public MessageDTO() {}
@@ -38,4 +39,7 @@ public class MessageDTO {
 
     public SenderDTO getSender() { return sender; }
     public void setSender(SenderDTO sender) { this.sender = sender; }
+
+    public AttachmentDTO getAttachment() { return attachment; }
+    public void setAttachment(AttachmentDTO attachment) { this.attachment = attachment; }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.example.Whisper.dto;
+
+import java.time.LocalDateTime;
+
+public class MessageSearchResultDTO {
+    private long messageId;
+    private long chatId;
+    private String senderPhone;
+    private String content;
+    private LocalDateTime timeSend;
+    private double rank;
+
+    public MessageSearchResultDTO(long messageId, long chatId, String senderPhone, String content,
+                                  LocalDateTime timeSend, double rank) {
+        this.messageId = messageId;
+        this.chatId = chatId;
+        this.senderPhone = senderPhone;
+        this.content = content;
+        this.timeSend = timeSend;
+        this.rank = rank;
+    }
+
+    public long getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(long messageId) {
+        this.messageId = messageId;
+    }
+
+    public long getChatId() {
+        return chatId;
+    }
+
+    public void setChatId(long chatId) {
+        this.chatId = chatId;
+    }
+
+    public String getSenderPhone() {
+        return senderPhone;
+    }
+
+    public void setSenderPhone(String senderPhone) {
+        this.senderPhone = senderPhone;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public LocalDateTime getTimeSend() {
+        return timeSend;
+    }
+
+    public void setTimeSend(LocalDateTime timeSend) {
+        this.timeSend = timeSend;
+    }
+
+    public double getRank() {
+        return rank;
+    }
+
+    public void setRank(double rank) {
+        this.rank = rank;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.Whisper.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class PerfReportDTO {
+    private int windowSeconds; // Span of the rest and stomp latencies
+    private List<LatencySummaryDTO> rest;
+    private List<LatencySummaryDTO> stomp;
+    private List<SlowQueryDTO> slowQueries; // Since startup
+    private Map<String, Object> connectionPool;
+    private Map<String, Integer> webSocketSessions;
+
+    public PerfReportDTO() {}
+
+    public int getWindowSeconds() { return windowSeconds; }
+    public void setWindowSeconds(int windowSeconds) { this.windowSeconds = windowSeconds; }
+
+    public List<LatencySummaryDTO> getRest() { return rest; }
+    public void setRest(List<LatencySummaryDTO> rest) { this.rest = rest; }
+
+    public List<LatencySummaryDTO> getStomp() { return stomp; }
+    public void setStomp(List<LatencySummaryDTO> stomp) { this.stomp = stomp; }
+
+    public List<SlowQueryDTO> getSlowQueries() { return slowQueries; }
+    public void setSlowQueries(List<SlowQueryDTO> slowQueries) { this.slowQueries = slowQueries; }
+
+    public Map<String, Object> getConnectionPool() { return connectionPool; }
+    public void setConnectionPool(Map<String, Object> connectionPool) { this.connectionPool = connectionPool; }
+
+    public Map<String, Integer> getWebSocketSessions() { return webSocketSessions; }
+    public void setWebSocketSessions(Map<String, Integer> webSocketSessions) { this.webSocketSessions = webSocketSessions; }
+}
@@ -10,6 +10,7 @@ public class SenderDTO {
     private String lastSeen;
     private String discription;
     private String profileImageUrl;
+    private String profileImageSmallUrl; // 48 px rendition for message bubbles
 
     // Default constructor
     public SenderDTO() {}
@@ -56,4 +57,7 @@ public class SenderDTO {
 
     public String getProfileImageUrl() { return profileImageUrl; }
     public void setProfileImageUrl(String profileImageUrl) { this.profileImageUrl = profileImageUrl; }
+
+    public String getProfileImageSmallUrl() { return profileImageSmallUrl; }
+    public void setProfileImageSmallUrl(String profileImageSmallUrl) { this.profileImageSmallUrl = profileImageSmallUrl; }
 }
@@ -0,0 +1,27 @@
+package com.example.Whisper.dto;
+
+public class SlowQueryDTO {
+    private String sql; // Statement text with ? placeholders
+    private long count;
+    private double meanMs;
+    private long maxMs;
+
+    public SlowQueryDTO(String sql, long count, double meanMs, long maxMs) {
+        this.sql = sql;
+        this.count = count;
+        this.meanMs = meanMs;
+        this.maxMs = maxMs;
+    }
+
+    public String getSql() { return sql; }
+    public void setSql(String sql) { this.sql = sql; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public double getMeanMs() { return meanMs; }
+    public void setMeanMs(double meanMs) { this.meanMs = meanMs; }
+
+    public long getMaxMs() { return maxMs; }
+    public void setMaxMs(long maxMs) { this.maxMs = maxMs; }
+}
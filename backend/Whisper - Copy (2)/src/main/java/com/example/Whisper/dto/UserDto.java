@@ -11,6 +11,9 @@ public class UserDto {
     private boolean online;
     private LocalDateTime lastSeen;
     private String profileImageUrl;
+    private String profileImageSmallUrl;
+    private String profileImageMediumUrl;
+    private String profileImageLargeUrl;
 
     public Long getId() {
         return id;
@@ -68,6 +71,30 @@ public class UserDto {
         this.profileImageUrl = profileImageUrl;
     }
 
+    public String getProfileImageSmallUrl() {
+        return profileImageSmallUrl;
+    }
+
+    public void setProfileImageSmallUrl(String profileImageSmallUrl) {
+        this.profileImageSmallUrl = profileImageSmallUrl;
+    }
+
+    public String getProfileImageMediumUrl() {
+        return profileImageMediumUrl;
+    }
+
+    public void setProfileImageMediumUrl(String profileImageMediumUrl) {
+        this.profileImageMediumUrl = profileImageMediumUrl;
+    }
+
+    public String getProfileImageLargeUrl() {
+        return profileImageLargeUrl;
+    }
+
+    public void setProfileImageLargeUrl(String profileImageLargeUrl) {
+        this.profileImageLargeUrl = profileImageLargeUrl;
+    }
+
     public LocalDateTime getLastSeen() {
         return lastSeen;
     }
@@ -0,0 +1,46 @@
+package com.example.Whisper.dto;
+
+// Lightweight search result: only what the search dropdown renders, no entity collections
+public class UserSearchDTO {
+    private long id;
+    private String userName;
+    private String fullname;
+    private String phoneNumber;
+    private String profileImageUrl;
+    private String profileImageSmallUrl;
+    private boolean online;
+
+    public UserSearchDTO() {}
+
+    public UserSearchDTO(long id, String userName, String fullname, String phoneNumber,
+                         String profileImageUrl, String profileImageSmallUrl, boolean online) {
+        this.id = id;
+        this.userName = userName;
+        this.fullname = fullname;
+        this.phoneNumber = phoneNumber;
+        this.profileImageUrl = profileImageUrl;
+        this.profileImageSmallUrl = profileImageSmallUrl;
+        this.online = online;
+    }
+
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+
+    public String getFullname() { return fullname; }
+    public void setFullname(String fullname) { this.fullname = fullname; }
+
+    public String getPhoneNumber() { return phoneNumber; }
+    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+
+    public String getProfileImageUrl() { return profileImageUrl; }
+    public void setProfileImageUrl(String profileImageUrl) { this.profileImageUrl = profileImageUrl; }
+
+    public String getProfileImageSmallUrl() { return profileImageSmallUrl; }
+    public void setProfileImageSmallUrl(String profileImageSmallUrl) { this.profileImageSmallUrl = profileImageSmallUrl; }
+
+    public boolean isOnline() { return online; }
+    public void setOnline(boolean online) { this.online = online; }
+}
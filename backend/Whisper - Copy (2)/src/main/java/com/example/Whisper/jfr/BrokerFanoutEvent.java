@@ -0,0 +1,35 @@
+package com.example.Whisper.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// WebSocketService.sendMessageToChat: serializing the message and handing it to the broker
+@Name("whisper.BrokerFanout")
+@Label("Broker Fan-out")
+@Category({"Whisper", "Messaging"})
+@Description("Sending a chat message to all members through the STOMP broker")
+@Threshold("1 ms")
+@StackTrace(false)
+public class BrokerFanoutEvent extends Event {
+
+    @Label("Chat Id")
+    public long chatId;
+
+    @Label("Message Id")
+    public long messageId;
+
+    @Label("Recipients")
+    public int recipients;
+
+    @Label("Per-User Queues")
+    @Description("True when the message went to each member's queue instead of the chat topic")
+    public boolean perUserQueues;
+
+    @Label("Content Length")
+    public int contentLength;
+}
@@ -0,0 +1,22 @@
+package com.example.Whisper.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// JwtUtil.validateToken, used by the HTTP filter and by STOMP CONNECT
+@Name("whisper.JwtValidation")
+@Label("JWT Validation")
+@Category({"Whisper", "Security"})
+@Description("Parsing and verifying a JWT")
+@Threshold("1 ms")
+@StackTrace(false)
+public class JwtValidationEvent extends Event {
+
+    @Label("Valid")
+    public boolean valid;
+}
@@ -0,0 +1,31 @@
+package com.example.Whisper.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// MessageService.sendMessage: loading the chat and sender, block checks and the insert
+@Name("whisper.MessageSend")
+@Label("Message Send")
+@Category({"Whisper", "Messaging"})
+@Description("Persisting a chat message")
+@Threshold("1 ms")
+@StackTrace(false)
+public class MessageSendEvent extends Event {
+
+    @Label("Chat Id")
+    public long chatId;
+
+    @Label("Message Id")
+    public long messageId;
+
+    @Label("Content Length")
+    public int contentLength;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
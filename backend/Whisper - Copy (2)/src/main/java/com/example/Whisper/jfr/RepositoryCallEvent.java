@@ -0,0 +1,28 @@
+package com.example.Whisper.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// Any Spring Data repository method, including its transaction when it opens one
+@Name("whisper.RepositoryCall")
+@Label("Repository Call")
+@Category({"Whisper", "Database"})
+@Description("A call to a Spring Data repository")
+@Threshold("1 ms")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Failed")
+    public boolean failed;
+}
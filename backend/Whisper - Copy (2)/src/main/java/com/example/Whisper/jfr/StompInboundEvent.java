@@ -0,0 +1,35 @@
+package com.example.Whisper.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// One handler of the client inbound channel processing one STOMP frame
+@Name("whisper.StompInbound")
+@Label("STOMP Inbound")
+@Category({"Whisper", "WebSocket"})
+@Description("Handling of an inbound STOMP frame by one message handler")
+@Threshold("1 ms")
+@StackTrace(false)
+public class StompInboundEvent extends Event {
+
+    @Label("Command")
+    public String command;
+
+    @Label("Destination")
+    public String destination;
+
+    @Label("Chat Id")
+    @Description("Chat of an /app/chat/{id} destination, 0 otherwise")
+    public long chatId;
+
+    @Label("Payload Size")
+    public int payloadSize;
+
+    @Label("Handler")
+    public String handler;
+}
@@ -0,0 +1,72 @@
+package com.example.Whisper.jfr;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits a StompInboundEvent for each handler of the client inbound channel. beforeHandle and
+ * afterMessageHandled run on the same executor thread around the handler, so the open event
+ * is kept in a thread local in between.
+ */
+@Component
+public class StompInboundEventInterceptor implements ExecutorChannelInterceptor {
+
+    private static final String APP_CHAT_PREFIX = "/app/chat/";
+
+    private final ThreadLocal<StompInboundEvent> currentEvent = new ThreadLocal<>();
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        StompInboundEvent event = new StompInboundEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            currentEvent.set(event);
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        StompInboundEvent event = currentEvent.get();
+        if (event == null) {
+            return;
+        }
+        currentEvent.remove();
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor != null && accessor.getCommand() != null) {
+            event.command = accessor.getCommand().name();
+        } else {
+            event.command = String.valueOf(SimpMessageHeaderAccessor.getMessageType(message.getHeaders()));
+        }
+        event.destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        event.chatId = parseChatId(event.destination);
+        event.payloadSize = message.getPayload() instanceof byte[] payload ? payload.length : 0;
+        event.handler = handler.getClass().getSimpleName();
+        event.commit();
+    }
+
+    // The id in "/app/chat/{id}/...", or 0 for any other destination
+    static long parseChatId(String destination) {
+        if (destination == null || !destination.startsWith(APP_CHAT_PREFIX)) {
+            return 0;
+        }
+        int end = destination.indexOf('/', APP_CHAT_PREFIX.length());
+        String id = end < 0 ? destination.substring(APP_CHAT_PREFIX.length()) : destination.substring(APP_CHAT_PREFIX.length(), end);
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
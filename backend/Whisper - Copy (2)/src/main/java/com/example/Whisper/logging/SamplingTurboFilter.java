@@ -0,0 +1,65 @@
+package com.example.Whisper.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Keeps one in every {@code rate} events from the loggers under {@code logger} at or below
+ * {@code level}, so a flood of routine warnings (bad tokens, rate limited clients, failed
+ * sends) cannot fill the async queue. Turbo filters run before the event is created, so a
+ * dropped event costs one counter increment. Configured in logback-spring.xml, one filter
+ * per sampled logger.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String logger;
+    private Level level = Level.WARN;
+    private int rate = 100;
+
+    private final AtomicLong seen = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // A null format is an isXxxEnabled() check, not an event
+        if (!isStarted() || format == null || level.toInt() > this.level.toInt()
+                || !logger.getName().startsWith(this.logger)) {
+            return FilterReply.NEUTRAL;
+        }
+        // Events the logger would drop anyway must not use up a sampling slot
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        return seen.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (logger == null || logger.isEmpty()) {
+            addError("No logger set for sampling filter " + getName());
+            return;
+        }
+        if (rate < 1) {
+            addError("Sampling rate must be at least 1, got " + rate);
+            return;
+        }
+        super.start();
+    }
+
+    public void setLogger(String logger) {
+        this.logger = logger;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.WARN);
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.Whisper.model;
+
+public enum AttachmentType {
+    IMAGE,
+    VIDEO,
+    AUDIO,
+    FILE;
+
+    public static AttachmentType fromContentType(String contentType) {
+        if (contentType == null) {
+            return FILE;
+        }
+        if (contentType.startsWith("image/")) {
+            return IMAGE;
+        }
+        if (contentType.startsWith("video/")) {
+            return VIDEO;
+        }
+        if (contentType.startsWith("audio/")) {
+            return AUDIO;
+        }
+        return FILE;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.Whisper.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// An attachment upload in progress; the bytes received so far live in a part file on disk
+@Entity
+@Table(name = "attachment_uploads", indexes = @Index(name = "idx_attachment_uploads_created_at", columnList = "created_at"))
+public class AttachmentUpload {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private long chatId;
+
+    @Column(nullable = false)
+    private long uploaderId;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(columnDefinition = "TEXT")
+    private String caption;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getChatId() {
+        return chatId;
+    }
+
+    public void setChatId(long chatId) {
+        this.chatId = chatId;
+    }
+
+    public long getUploaderId() {
+        return uploaderId;
+    }
+
+    public void setUploaderId(long uploaderId) {
+        this.uploaderId = uploaderId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getCaption() {
+        return caption;
+    }
+
+    public void setCaption(String caption) {
+        this.caption = caption;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
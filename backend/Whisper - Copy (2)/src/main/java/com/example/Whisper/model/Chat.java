@@ -4,19 +4,34 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "chats")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "chats")
+@Table(name = "chats", uniqueConstraints = @UniqueConstraint(name = "uk_chats_participant_key", columnNames = "participant_key"))
 public class Chat {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
 
+    // Sorted participant ids joined with ':', e.g. "3:17"; identifies a direct chat by its members
+    @Column(name = "participant_key")
+    private String participantKey;
+
+    @Column(name = "is_group", columnDefinition = "boolean not null default false")
+    private boolean isGroup;
+
+    // Display name, only set for group chats
+    private String name;
+
+    // Cached as participant ids; ChatMembershipService.evict drops a chat's entry when members change
     @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "chat-participants")
     @JoinTable(
             name = "chat_participents",
             joinColumns = @JoinColumn(name = "chat_id"),
@@ -54,6 +69,30 @@ public class Chat {
         this.id = id;
     }
 
+    public String getParticipantKey() {
+        return participantKey;
+    }
+
+    public void setParticipantKey(String participantKey) {
+        this.participantKey = participantKey;
+    }
+
+    public boolean isGroup() {
+        return isGroup;
+    }
+
+    public void setGroup(boolean group) {
+        isGroup = group;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
     public List<Message> getMessageList() {
         return messageList;
     }
@@ -0,0 +1,64 @@
+package com.example.Whisper.model;
+
+import jakarta.persistence.*;
+
+// Per-member state of a group chat; membership itself stays in chat_participents
+@Entity
+@Table(name = "chat_members", uniqueConstraints = @UniqueConstraint(name = "uk_chat_members_chat_user", columnNames = {"chat_id", "user_id"}))
+public class ChatMember {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chat_id", nullable = false)
+    private Chat chat;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChatRole role;
+
+    // Highest message id this member has read; replaces Message.isRead for groups
+    private long lastReadMessageId;
+
+    public long getId() {
+        return id;
+    }
+
+    public Chat getChat() {
+        return chat;
+    }
+
+    public void setChat(Chat chat) {
+        this.chat = chat;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public ChatRole getRole() {
+        return role;
+    }
+
+    public void setRole(ChatRole role) {
+        this.role = role;
+    }
+
+    public long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+
+    public void setLastReadMessageId(long lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
+}
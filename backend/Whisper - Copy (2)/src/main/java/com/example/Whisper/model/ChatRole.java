@@ -0,0 +1,6 @@
+package com.example.Whisper.model;
+
+public enum ChatRole {
+    ADMIN,
+    MEMBER
+}
@@ -4,7 +4,12 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "contacts")
+@Table(name = "contacts",
+        indexes = {
+                @Index(name = "idx_contacts_user_id", columnList = "user_id"),
+                @Index(name = "idx_contacts_phone_number", columnList = "phoneNumber")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_contacts_user_phone", columnNames = {"user_id", "phoneNumber"}))
 public class Contact {
 
     @Id
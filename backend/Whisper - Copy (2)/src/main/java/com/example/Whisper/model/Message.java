@@ -32,6 +32,9 @@ public class Message {
     @JsonBackReference
     private Chat chat;
 
+    @Embedded
+    private MessageAttachment attachment;
+
     public long getId() {
         return id;
     }
@@ -87,4 +90,12 @@ public class Message {
     public void setChat(Chat chat) {
         this.chat = chat;
     }
+
+    public MessageAttachment getAttachment() {
+        return attachment;
+    }
+
+    public void setAttachment(MessageAttachment attachment) {
+        this.attachment = attachment;
+    }
 }
@@ -0,0 +1,98 @@
+package com.example.Whisper.model;
+
+import jakarta.persistence.*;
+
+// A file attached to a message; stored inline on the message row so loading messages needs no join
+@Embeddable
+public class MessageAttachment {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "attachment_type")
+    private AttachmentType type;
+
+    @Column(name = "attachment_name")
+    private String fileName;
+
+    @Column(name = "attachment_content_type")
+    private String contentType;
+
+    @Column(name = "attachment_size")
+    private Long size;
+
+    @Column(name = "attachment_storage_key", columnDefinition = "TEXT")
+    private String storageKey;
+
+    @Column(name = "attachment_url", columnDefinition = "TEXT")
+    private String url;
+
+    // Pixel dimensions for images, null otherwise
+    @Column(name = "attachment_width")
+    private Integer width;
+
+    @Column(name = "attachment_height")
+    private Integer height;
+
+    public AttachmentType getType() {
+        return type;
+    }
+
+    public void setType(AttachmentType type) {
+        this.type = type;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.Whisper.model;
+
+import jakarta.persistence.*;
+
+// Downscaled copies of an uploaded profile image, keyed by the original image URL
+@Entity
+@Table(name = "profile_image_renditions", uniqueConstraints = @UniqueConstraint(name = "uk_profile_image_renditions_source", columnNames = "source_url"))
+public class ProfileImageRenditions {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "source_url", nullable = false, columnDefinition = "TEXT")
+    private String sourceUrl;
+
+    @Column(columnDefinition = "TEXT")
+    private String smallUrl;
+
+    @Column(columnDefinition = "TEXT")
+    private String mediumUrl;
+
+    @Column(columnDefinition = "TEXT")
+    private String largeUrl;
+
+    public long getId() {
+        return id;
+    }
+
+    public String getSourceUrl() {
+        return sourceUrl;
+    }
+
+    public void setSourceUrl(String sourceUrl) {
+        this.sourceUrl = sourceUrl;
+    }
+
+    public String getSmallUrl() {
+        return smallUrl;
+    }
+
+    public void setSmallUrl(String smallUrl) {
+        this.smallUrl = smallUrl;
+    }
+
+    public String getMediumUrl() {
+        return mediumUrl;
+    }
+
+    public void setMediumUrl(String mediumUrl) {
+        this.mediumUrl = mediumUrl;
+    }
+
+    public String getLargeUrl() {
+        return largeUrl;
+    }
+
+    public void setLargeUrl(String largeUrl) {
+        this.largeUrl = largeUrl;
+    }
+}
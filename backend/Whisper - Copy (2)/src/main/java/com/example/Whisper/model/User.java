@@ -4,6 +4,11 @@
     import java.util.List;
     import java.util.Set;
 
+    import org.hibernate.annotations.Cache;
+    import org.hibernate.annotations.CacheConcurrencyStrategy;
+    import org.hibernate.annotations.NaturalId;
+    import org.hibernate.annotations.NaturalIdCache;
+
     import com.fasterxml.jackson.annotation.JsonManagedReference;
 
     import jakarta.persistence.CascadeType;
@@ -15,9 +20,18 @@ import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
+    // Cached by id and by phone number (see UserNaturalIdRepository); updates go through the
+    // entity, so the cached copy is replaced when the transaction commits
     @Entity
-    @Table(name = "users")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+    @NaturalIdCache(region = "users-by-phone")
+    @Table(name = "users", uniqueConstraints = {
+            @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+            @UniqueConstraint(name = "uk_users_phone_number", columnNames = "phoneNumber"),
+            @UniqueConstraint(name = "uk_users_user_name", columnNames = "userName")
+    })
     public class User {
 
         @Id
@@ -30,10 +44,11 @@ import jakarta.persistence.Table;
         @Column(nullable = false)
         private String fullname;
 
-        @Column(unique = true, nullable = false)
+        @Column(nullable = false)
         private String email;
 
-        @Column(nullable = false, unique = true)
+        @NaturalId
+        @Column(nullable = false)
         private String phoneNumber;
 
         private boolean online;
@@ -45,6 +60,16 @@ import jakarta.persistence.Table;
         @Column(name = "profile_image_url", columnDefinition = "TEXT")
         private String profileImageUrl;
 
+        // Renditions of profileImageUrl (48, 128 and 512 px), null until generated
+        @Column(columnDefinition = "TEXT")
+        private String profileImageSmallUrl;
+
+        @Column(columnDefinition = "TEXT")
+        private String profileImageMediumUrl;
+
+        @Column(columnDefinition = "TEXT")
+        private String profileImageLargeUrl;
+
         @OneToMany(mappedBy = "sender", cascade = CascadeType.ALL)
         @JsonManagedReference
         private List<Message> sentMessages;
@@ -149,4 +174,28 @@ import jakarta.persistence.Table;
             this.profileImageUrl = profileImageUrl;
         }
 
+        public String getProfileImageSmallUrl() {
+            return profileImageSmallUrl;
+        }
+
+        public void setProfileImageSmallUrl(String profileImageSmallUrl) {
+            this.profileImageSmallUrl = profileImageSmallUrl;
+        }
+
+        public String getProfileImageMediumUrl() {
+            return profileImageMediumUrl;
+        }
+
+        public void setProfileImageMediumUrl(String profileImageMediumUrl) {
+            this.profileImageMediumUrl = profileImageMediumUrl;
+        }
+
+        public String getProfileImageLargeUrl() {
+            return profileImageLargeUrl;
+        }
+
+        public void setProfileImageLargeUrl(String profileImageLargeUrl) {
+            this.profileImageLargeUrl = profileImageLargeUrl;
+        }
+
     }
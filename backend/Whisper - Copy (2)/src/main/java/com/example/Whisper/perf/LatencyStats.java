@@ -0,0 +1,46 @@
+package com.example.Whisper.perf;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rolling latency histograms for REST mappings and STOMP destinations, reported by
+ * /admin/perf. The window is perf.slices slices of perf.slice-seconds each; the slice in
+ * progress is not reported until it closes.
+ */
+@Component
+public class LatencyStats {
+
+    private final RollingLatencyHistograms rest;
+    private final RollingLatencyHistograms stomp;
+    private final int windowSeconds;
+
+    public LatencyStats(@Value("${perf.slices:6}") int slices,
+                        @Value("${perf.slice-seconds:10}") int sliceSeconds,
+                        @Value("${perf.max-keys:200}") int maxKeys) {
+        this.rest = new RollingLatencyHistograms(slices, maxKeys);
+        this.stomp = new RollingLatencyHistograms(slices, maxKeys);
+        this.windowSeconds = slices * sliceSeconds;
+    }
+
+    public RollingLatencyHistograms getRest() {
+        return rest;
+    }
+
+    public RollingLatencyHistograms getStomp() {
+        return stomp;
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    @Scheduled(fixedRateString = "${perf.slice-seconds:10}", timeUnit = TimeUnit.SECONDS)
+    public void rotate() {
+        rest.rotate();
+        stomp.rotate();
+    }
+}
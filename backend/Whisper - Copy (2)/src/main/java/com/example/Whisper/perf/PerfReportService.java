@@ -0,0 +1,99 @@
+package com.example.Whisper.perf;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import com.example.Whisper.dto.PerfReportDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Builds the /admin/perf report from state that is already being kept: the latency
+ * histograms, the SQL timings, the Hikari pool and the WebSocket session counters.
+ */
+@Service
+public class PerfReportService {
+
+    private final LatencyStats latencyStats;
+    private final SlowQueryLog slowQueryLog;
+    private final DataSource dataSource;
+    private final WebSocketMessageBrokerStats brokerStats;
+    private final int slowQueryLimit;
+
+    @Autowired
+    public PerfReportService(LatencyStats latencyStats, SlowQueryLog slowQueryLog, DataSource dataSource,
+                             WebSocketMessageBrokerStats brokerStats,
+                             @Value("${perf.slow-queries.top:20}") int slowQueryLimit) {
+        this.latencyStats = latencyStats;
+        this.slowQueryLog = slowQueryLog;
+        this.dataSource = dataSource;
+        this.brokerStats = brokerStats;
+        this.slowQueryLimit = slowQueryLimit;
+    }
+
+    public PerfReportDTO report() {
+        PerfReportDTO report = new PerfReportDTO();
+        report.setWindowSeconds(latencyStats.getWindowSeconds());
+        report.setRest(latencyStats.getRest().summaries());
+        report.setStomp(latencyStats.getStomp().summaries());
+        report.setSlowQueries(slowQueryLog.slowest(slowQueryLimit));
+        report.setConnectionPool(connectionPool());
+        report.setWebSocketSessions(webSocketSessions());
+        return report;
+    }
+
+    private Map<String, Object> connectionPool() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        HikariDataSource hikari = unwrapHikari();
+        HikariPoolMXBean mxBean = hikari != null ? hikari.getHikariPoolMXBean() : null;
+        if (mxBean == null) {
+            return pool;
+        }
+        int max = hikari.getMaximumPoolSize();
+        int active = mxBean.getActiveConnections();
+        pool.put("name", hikari.getPoolName());
+        pool.put("active", active);
+        pool.put("idle", mxBean.getIdleConnections());
+        pool.put("total", mxBean.getTotalConnections());
+        pool.put("max", max);
+        pool.put("threadsAwaitingConnection", mxBean.getThreadsAwaitingConnection());
+        pool.put("saturation", max > 0 ? (double) active / max : 0);
+        return pool;
+    }
+
+    private HikariDataSource unwrapHikari() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari;
+        }
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Integer> webSocketSessions() {
+        Map<String, Integer> sessions = new LinkedHashMap<>();
+        SubProtocolWebSocketHandler.Stats stats = brokerStats.getWebSocketSessionStats();
+        if (stats == null) {
+            return sessions;
+        }
+        sessions.put("total", stats.getTotalSessions());
+        sessions.put("webSocket", stats.getWebSocketSessions());
+        sessions.put("httpStreaming", stats.getHttpStreamingSessions());
+        sessions.put("httpPolling", stats.getHttpPollingSessions());
+        sessions.put("limitExceeded", stats.getLimitExceededSessions());
+        sessions.put("noMessagesReceived", stats.getNoMessagesReceivedSessions());
+        sessions.put("transportErrors", stats.getTransportErrorSessions());
+        return sessions;
+    }
+}
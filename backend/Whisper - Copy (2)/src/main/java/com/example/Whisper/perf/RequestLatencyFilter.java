@@ -0,0 +1,49 @@
+package com.example.Whisper.perf;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records each REST request's latency, security filters included, under its method and
+ * mapping pattern ("POST /api/messages/chat/{chatId}/send"). Requests that never reached a
+ * handler (rejected, unmapped) have no pattern and are not recorded. SockJS transports are
+ * skipped, their long-polling requests would swamp the numbers.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLatencyFilter extends OncePerRequestFilter {
+
+    private final LatencyStats latencyStats;
+
+    public RequestLatencyFilter(LatencyStats latencyStats) {
+        this.latencyStats = latencyStats;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/ws/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern) {
+                latencyStats.getRest().record(request.getMethod() + " " + pattern, System.nanoTime() - start);
+            }
+        }
+    }
+}
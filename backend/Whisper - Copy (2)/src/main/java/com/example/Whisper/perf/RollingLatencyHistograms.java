@@ -0,0 +1,101 @@
+package com.example.Whisper.perf;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.example.Whisper.dto.LatencySummaryDTO;
+
+/**
+ * Latency per key (a REST mapping or STOMP destination) over a rolling window. Each key has a
+ * Recorder that request threads write to without locking, and a ring of the last {@code slices}
+ * interval histograms; {@link #rotate()} moves the recorder's current interval into the ring,
+ * recycling the oldest slice. Histograms track 1 us to 60 s at two significant digits and never
+ * resize, so each key costs a fixed ~150 KB; at most {@code maxKeys} keys are tracked.
+ */
+public class RollingLatencyHistograms {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final int slices;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public RollingLatencyHistograms(int slices, int maxKeys) {
+        this.slices = slices;
+        this.maxKeys = maxKeys;
+    }
+
+    public void record(String key, long nanos) {
+        Window window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= maxKeys) {
+                return;
+            }
+            window = windows.computeIfAbsent(key, k -> new Window(slices));
+        }
+        long micros = Math.max(0, Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+        window.recorder.recordValue(micros);
+    }
+
+    // Closes the current slice of every key
+    public void rotate() {
+        for (Window window : windows.values()) {
+            window.rotate();
+        }
+    }
+
+    // Keys with traffic in the window, busiest first
+    public List<LatencySummaryDTO> summaries() {
+        List<LatencySummaryDTO> result = new ArrayList<>();
+        Histogram merged = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        for (Map.Entry<String, Window> entry : windows.entrySet()) {
+            merged.reset();
+            entry.getValue().mergeInto(merged);
+            if (merged.getTotalCount() == 0) {
+                continue;
+            }
+            result.add(new LatencySummaryDTO(entry.getKey(), merged.getTotalCount(),
+                    toMillis(merged.getValueAtPercentile(50)), toMillis(merged.getValueAtPercentile(95)),
+                    toMillis(merged.getValueAtPercentile(99)), toMillis(merged.getMaxValue())));
+        }
+        result.sort(Comparator.comparingLong(LatencySummaryDTO::getCount).reversed());
+        return result;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Window {
+
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram[] ring;
+        private int next;
+
+        Window(int slices) {
+            this.ring = new Histogram[slices];
+        }
+
+        synchronized void rotate() {
+            // The slice falling out of the window becomes the recorder's next spare
+            ring[next] = recorder.getIntervalHistogram(ring[next]);
+            next = (next + 1) % ring.length;
+        }
+
+        synchronized void mergeInto(Histogram target) {
+            for (Histogram slice : ring) {
+                if (slice != null) {
+                    target.add(slice);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.Whisper.perf;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.Whisper.dto.SlowQueryDTO;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Execution count, total and maximum time per SQL statement, fed by the DataSource proxy
+ * (see PerfConfig). Statements are keyed by their text with placeholders, so parameter values
+ * are never kept. A batch counts once, under its first statement. At most {@code maxStatements}
+ * distinct statements are tracked; anything after that is counted under "(other)".
+ */
+public class SlowQueryLog implements QueryExecutionListener {
+
+    static final String OTHER = "(other)";
+
+    private final int maxStatements;
+    private final ConcurrentHashMap<String, Stats> statements = new ConcurrentHashMap<>();
+
+    public SlowQueryLog(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        record(queryInfoList.get(0).getQuery(), execInfo.getElapsedTime());
+    }
+
+    void record(String sql, long elapsedMillis) {
+        Stats stats = statements.get(sql);
+        if (stats == null) {
+            String key = statements.size() < maxStatements ? sql : OTHER;
+            stats = statements.computeIfAbsent(key, k -> new Stats());
+        }
+        stats.count.increment();
+        stats.totalMillis.add(elapsedMillis);
+        stats.maxMillis.accumulateAndGet(elapsedMillis, Math::max);
+    }
+
+    // The statements with the highest maximum time, slowest first
+    public List<SlowQueryDTO> slowest(int limit) {
+        List<SlowQueryDTO> result = new ArrayList<>(statements.size());
+        for (Map.Entry<String, Stats> entry : statements.entrySet()) {
+            Stats stats = entry.getValue();
+            long count = stats.count.sum();
+            if (count == 0) {
+                continue;
+            }
+            result.add(new SlowQueryDTO(entry.getKey(), count,
+                    (double) stats.totalMillis.sum() / count, stats.maxMillis.get()));
+        }
+        result.sort(Comparator.comparingLong(SlowQueryDTO::getMaxMs).reversed()
+                .thenComparing(Comparator.comparingDouble(SlowQueryDTO::getMeanMs).reversed()));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final AtomicLong maxMillis = new AtomicLong();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.Whisper.perf;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how long each handler of the client inbound channel takes, keyed by STOMP command
+ * and destination with numeric segments replaced ("SEND /app/chat/{id}/send"), so the number
+ * of keys does not grow with the number of chats.
+ */
+@Component
+public class StompLatencyInterceptor implements ExecutorChannelInterceptor {
+
+    private final LatencyStats latencyStats;
+
+    // Start time of the handler running on this executor thread
+    private final ThreadLocal<long[]> start = ThreadLocal.withInitial(() -> new long[1]);
+
+    public StompLatencyInterceptor(LatencyStats latencyStats) {
+        this.latencyStats = latencyStats;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        start.get()[0] = System.nanoTime();
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        long elapsed = System.nanoTime() - start.get()[0];
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        String key = destination == null
+                ? accessor.getCommand().name()
+                : accessor.getCommand().name() + " " + normalize(destination);
+        latencyStats.getStomp().record(key, elapsed);
+    }
+
+    // Replaces every all-digit path segment with {id}
+    static String normalize(String destination) {
+        StringBuilder result = new StringBuilder(destination.length());
+        int segmentStart = 0;
+        while (segmentStart <= destination.length()) {
+            int end = destination.indexOf('/', segmentStart);
+            if (end < 0) {
+                end = destination.length();
+            }
+            if (segmentStart > 0) {
+                result.append('/');
+            }
+            String segment = destination.substring(segmentStart, end);
+            result.append(!segment.isEmpty() && segment.chars().allMatch(Character::isDigit) ? "{id}" : segment);
+            segmentStart = end + 1;
+        }
+        return result.toString();
+    }
+}
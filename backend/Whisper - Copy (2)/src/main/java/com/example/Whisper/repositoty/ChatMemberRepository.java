@@ -0,0 +1,24 @@
+package com.example.Whisper.repositoty;
+
+import com.example.Whisper.model.ChatMember;
+import com.example.Whisper.model.ChatRole;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChatMemberRepository extends JpaRepository<ChatMember, Long> {
+
+    Optional<ChatMember> findByChatIdAndUserId(long chatId, long userId);
+
+    @Query("SELECT m FROM ChatMember m JOIN FETCH m.user WHERE m.chat.id = :chatId")
+    List<ChatMember> findByChatIdWithUser(@Param("chatId") long chatId);
+
+    long countByChatId(long chatId);
+
+    long countByChatIdAndRole(long chatId, ChatRole role);
+}
@@ -1,16 +1,43 @@
 package com.example.Whisper.repositoty;
 
 import com.example.Whisper.model.Chat;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
 
 @Repository
 public interface ChatRepository extends JpaRepository<Chat, Long> {
-    @Query("SELECT c FROM Chat c JOIN c.participents p WHERE p.id IN :userIds GROUP BY c.id HAVING COUNT(p.id) = :size")
-    List<Chat> findChatsByParticipantIds(@Param("userIds") Set<Long> userIds, @Param("size") long size);
+    Optional<Chat> findByParticipantKey(String participantKey);
+
+    // Concurrent callers for the same key block on the unique index; the loser inserts nothing.
+    // The native-spaces hints name the table each statement writes, so Hibernate only evicts the
+    // second-level cache regions of entities mapped to it instead of all of them. No entity maps
+    // chat_participents; ChatMembershipService.evict drops the changed chat's participants
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chats"))
+    @Query(value = "INSERT INTO chats (participant_key, is_group) VALUES (:participantKey, false) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("participantKey") String participantKey);
+
+    // Group membership changes go straight to the join table so large groups are never loaded whole
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chat_participents"))
+    @Query(value = "INSERT INTO chat_participents (chat_id, user_id) VALUES (:chatId, :userId)", nativeQuery = true)
+    void addParticipant(@Param("chatId") long chatId, @Param("userId") long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chat_participents"))
+    @Query(value = "DELETE FROM chat_participents WHERE chat_id = :chatId AND user_id = :userId", nativeQuery = true)
+    void removeParticipant(@Param("chatId") long chatId, @Param("userId") long userId);
+
+    // Each row is {user id, phone number}
+    @Query("SELECT p.id, p.phoneNumber FROM Chat c JOIN c.participents p WHERE c.id = :chatId")
+    List<Object[]> findParticipantIdsAndPhones(@Param("chatId") long chatId);
 }
@@ -3,11 +3,22 @@ package com.example.Whisper.repositoty;
 import com.example.Whisper.model.Contact;
 import com.example.Whisper.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ContactRepository extends JpaRepository<Contact, Long> {
     Optional<Contact> findByUserAndPhoneNumber(User user, String phoneNumber);
+
+    // Each row is {Contact, User or null}: the contact joined to the registered user with that phone number
+    @Query("SELECT c, u FROM Contact c LEFT JOIN User u ON u.phoneNumber = c.phoneNumber WHERE c.user.id = :userId")
+    List<Object[]> findContactsWithUsers(@Param("userId") long userId);
+
+    // Ids of the users who have blocked this phone number
+    @Query("SELECT c.user.id FROM Contact c WHERE c.phoneNumber = :phoneNumber AND c.isBlocked = true")
+    List<Long> findBlockerIds(@Param("phoneNumber") String phoneNumber);
 }
@@ -6,9 +6,11 @@ import com.example.Whisper.model.Chat;
 import com.example.Whisper.model.Message;
 import com.example.Whisper.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -41,10 +43,25 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
             "ORDER BY m.timeSend ASC")
     List<Message> findUnreadMessagesInChatForUser(@Param("user") User user, @Param("chat") Chat chat);
 
+    // Marks every message in the chat from the other participants as read in one statement
+    @Transactional
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true " +
+            "WHERE m.chat = :chat AND m.sender <> :user AND m.isRead = false " +
+            "AND EXISTS (SELECT 1 FROM Chat c JOIN c.participents p WHERE c = :chat AND p = :user)")
+    int markUnreadMessagesInChatAsRead(@Param("user") User user, @Param("chat") Chat chat);
+
     // Find latest message in each chat for a user
     @Query("SELECT m FROM Message m WHERE m.id IN " +
             "(SELECT MAX(m2.id) FROM Message m2 JOIN m2.chat.participents p " +
             "WHERE p = :user GROUP BY m2.chat.id) " +
             "ORDER BY m.timeSend DESC")
     List<Message> findLatestMessagesForUser(@Param("user") User user);
+
+    // Messages from others in a group chat after the member's read marker
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.chat.id = :chatId AND m.sender.id <> :userId AND m.id > :lastReadId")
+    Long countGroupMessagesAfter(@Param("chatId") long chatId, @Param("userId") long userId, @Param("lastReadId") long lastReadId);
+
+    @Query("SELECT MAX(m.id) FROM Message m WHERE m.chat.id = :chatId")
+    Long findLatestMessageId(@Param("chatId") long chatId);
 }
\ No newline at end of file
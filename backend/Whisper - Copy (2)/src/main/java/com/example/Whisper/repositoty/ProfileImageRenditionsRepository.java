@@ -0,0 +1,13 @@
+package com.example.Whisper.repositoty;
+
+import com.example.Whisper.model.ProfileImageRenditions;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProfileImageRenditionsRepository extends JpaRepository<ProfileImageRenditions, Long> {
+
+    Optional<ProfileImageRenditions> findBySourceUrl(String sourceUrl);
+}
@@ -0,0 +1,14 @@
+package com.example.Whisper.repositoty;
+
+import com.example.Whisper.model.User;
+
+import java.util.Optional;
+
+// Lookups by phone number through Hibernate's natural-id API, so a known phone number is
+// resolved from the second-level cache instead of querying users
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByPhoneNumber(String phoneNumber);
+
+    Optional<Long> findIdByPhoneNumber(String phoneNumber);
+}
@@ -0,0 +1,42 @@
+package com.example.Whisper.repositoty;
+
+import com.example.Whisper.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // SUPPORTS gives callers outside a transaction a session to unwrap; it is not read-only, so
+    // a cache miss is resolved on the primary like the derived query it replaces
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<User> findByPhoneNumber(String phoneNumber) {
+        if (phoneNumber == null) {
+            return Optional.empty();
+        }
+        return session().bySimpleNaturalId(User.class).loadOptional(phoneNumber);
+    }
+
+    // Resolves only the id; the user itself is not loaded
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<Long> findIdByPhoneNumber(String phoneNumber) {
+        if (phoneNumber == null) {
+            return Optional.empty();
+        }
+        User user = session().bySimpleNaturalId(User.class).getReference(phoneNumber);
+        return Optional.ofNullable(user).map(User::getId);
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+}
@@ -1,23 +1,38 @@
 package com.example.Whisper.repositoty;
 
+import com.example.Whisper.dto.UserSearchDTO;
 import com.example.Whisper.model.Message;
 import com.example.Whisper.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
     @Query("SELECT u FROM User u WHERE u.phoneNumber = :phoneNumber")
     User searchByPhoneNumber(@Param("phoneNumber") String phoneNumber);
 
     List<User> findByPhoneNumberContaining(String phoneNumber);
+
+    // Served by the pg_trgm index on phone_number (created by database_fix.sql) instead of a
+    // sequential scan. Ordered by id so OFFSET pages neither overlap nor skip rows; for a common
+    // fragment the planner can walk the primary key and stop at the page limit
+    @Query("SELECT new com.example.Whisper.dto.UserSearchDTO(u.id, u.userName, u.fullname, u.phoneNumber, u.profileImageUrl, u.profileImageSmallUrl, u.online) " +
+            "FROM User u WHERE u.phoneNumber LIKE CONCAT('%', :fragment, '%') ORDER BY u.id")
+    List<UserSearchDTO> searchByPhoneNumberFragment(@Param("fragment") String fragment, Pageable pageable);
+
+    @Query("SELECT new com.example.Whisper.dto.UserSearchDTO(u.id, u.userName, u.fullname, u.phoneNumber, u.profileImageUrl, u.profileImageSmallUrl, u.online) FROM User u")
+    List<UserSearchDTO> findAllForSearchIndex();
     List<User> findByOnlineTrue();
 
     boolean existsByEmail(String email);
@@ -25,5 +40,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUserName(String userName);
 
     Optional<User> findByEmail(String email);
-    Optional<User> findByPhoneNumber(String phone);
+    // findByPhoneNumber and findIdByPhoneNumber come from UserNaturalIdRepository
+
+    @Query("SELECT u.phoneNumber FROM User u WHERE u.id = :id")
+    Optional<String> findPhoneNumberById(@Param("id") long id);
+
+    List<User> findByPhoneNumberIn(Collection<String> phoneNumbers);
+
+    @Query("SELECT u.phoneNumber FROM User u WHERE u.phoneNumber IN :phoneNumbers")
+    List<String> findPhoneNumbersIn(@Param("phoneNumbers") Collection<String> phoneNumbers);
+
+    List<User> findByProfileImageUrl(String profileImageUrl);
+
+    // Attaches renditions that finished after the user already switched to the source image
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.profileImageSmallUrl = :smallUrl, u.profileImageMediumUrl = :mediumUrl, " +
+            "u.profileImageLargeUrl = :largeUrl WHERE u.profileImageUrl = :sourceUrl")
+    int updateProfileImageRenditions(@Param("sourceUrl") String sourceUrl, @Param("smallUrl") String smallUrl,
+                                     @Param("mediumUrl") String mediumUrl, @Param("largeUrl") String largeUrl);
 }
\ No newline at end of file
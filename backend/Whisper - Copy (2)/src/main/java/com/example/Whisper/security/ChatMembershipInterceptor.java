@@ -0,0 +1,81 @@
+package com.example.Whisper.security;
+
+import java.security.Principal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import com.example.Whisper.service.ChatMembershipService;
+
+/**
+ * Rejects STOMP SUBSCRIBE to /topic/chat/{id}/** and SEND to /app/chat/{id}/**
+ * unless the connected user is a participant of that chat. Fails closed: a chat
+ * destination whose id is not a number, and any wildcard subscription (the simple
+ * broker matches subscriptions as patterns, so /topic/chat/* would receive every
+ * chat), are rejected.
+ */
+@Component
+public class ChatMembershipInterceptor implements ChannelInterceptor {
+
+    private static final String TOPIC_PREFIX = "/topic/chat/";
+    private static final String APP_PREFIX = "/app/chat/";
+
+    private final ChatMembershipService chatMembershipService;
+
+    @Autowired
+    public ChatMembershipInterceptor(ChatMembershipService chatMembershipService) {
+        this.chatMembershipService = chatMembershipService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+
+        String destination = accessor.getDestination();
+        String prefix = null;
+        if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            if (isPattern(destination)) {
+                throw new MessageDeliveryException(message, "Wildcard subscriptions are not allowed");
+            }
+            prefix = TOPIC_PREFIX;
+        } else if (StompCommand.SEND.equals(accessor.getCommand())) {
+            prefix = APP_PREFIX;
+        }
+        if (prefix == null || destination == null || !destination.startsWith(prefix)) {
+            return message;
+        }
+
+        long chatId = parseChatId(message, destination, prefix);
+        Principal user = accessor.getUser();
+        if (user == null || !chatMembershipService.isParticipant(chatId, user.getName())) {
+            throw new MessageDeliveryException(message, "Not a participant of chat " + chatId);
+        }
+        return message;
+    }
+
+    // Same characters AntPathMatcher treats as a pattern
+    private static boolean isPattern(String destination) {
+        return destination != null
+                && (destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0);
+    }
+
+    // The id in "<prefix>{id}" or "<prefix>{id}/..."; anything but plain digits is rejected
+    private static long parseChatId(Message<?> message, String destination, String prefix) {
+        int end = destination.indexOf('/', prefix.length());
+        String id = end < 0 ? destination.substring(prefix.length()) : destination.substring(prefix.length(), end);
+        if (id.isEmpty() || id.length() > 18 || !id.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            throw new MessageDeliveryException(message, "Invalid chat destination " + destination);
+        }
+        return Long.parseLong(id);
+    }
+}
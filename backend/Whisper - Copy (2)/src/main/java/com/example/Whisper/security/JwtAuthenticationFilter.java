@@ -1,6 +1,7 @@
 package com.example.Whisper.security;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -14,6 +15,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.example.Whisper.util.JwtUtil;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,11 +31,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
-    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil, MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -52,19 +57,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
+        long start = System.nanoTime();
         String jwt = getJwtFromRequest(request);
+        String result = "none";
 
-        if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-            String phoneNumber = jwtUtil.getPhoneNumberFromToken(jwt);
+        if (StringUtils.hasText(jwt)) {
+            result = "invalid";
+            if (jwtUtil.validateToken(jwt)) {
+                String phoneNumber = jwtUtil.getPhoneNumberFromToken(jwt);
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(phoneNumber);
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                UserDetails userDetails = userDetailsService.loadUserByUsername(phoneNumber);
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                result = "authenticated";
+            }
         }
 
+        // Only the token check and user lookup, not the rest of the request
+        Timer.builder("whisper.auth.jwt")
+                .description("JWT validation and user lookup per request")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
         filterChain.doFilter(request, response);
     }
 
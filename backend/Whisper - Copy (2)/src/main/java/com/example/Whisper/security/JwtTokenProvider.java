@@ -2,6 +2,7 @@ package com.example.Whisper.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
@@ -9,6 +10,7 @@ import java.util.Date;
 import java.util.Base64;
 
 @Component
+@Slf4j
 public class JwtTokenProvider {
 
     @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
@@ -87,19 +89,19 @@ public class JwtTokenProvider {
                     .parseClaimsJws(token);
             return true;
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
+            log.debug("JWT token is expired: {}", e.getMessage());
             return false;
         } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
+            log.debug("JWT token is unsupported: {}", e.getMessage());
             return false;
         } catch (MalformedJwtException e) {
-            System.err.println("JWT token is malformed: " + e.getMessage());
+            log.debug("JWT token is malformed: {}", e.getMessage());
             return false;
         } catch (SecurityException e) {
-            System.err.println("JWT signature validation failed: " + e.getMessage());
+            log.debug("JWT signature validation failed: {}", e.getMessage());
             return false;
         } catch (IllegalArgumentException e) {
-            System.err.println("JWT token compact of handler are invalid: " + e.getMessage());
+            log.debug("JWT token compact of handler are invalid: {}", e.getMessage());
             return false;
         }
     }
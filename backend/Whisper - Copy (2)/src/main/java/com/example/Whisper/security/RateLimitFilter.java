@@ -0,0 +1,172 @@
+package com.example.Whisper.security;
+
+import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.Whisper.util.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Throttles the OTP and login/register endpoints before they reach AuthController.
+ * Requests are limited per client IP, and per email / phone number found in the JSON body.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED_PATHS = Set.of(
+            "/auth/send-login-otp",
+            "/auth/send-registration-otp",
+            "/auth/login",
+            "/auth/register"
+    );
+
+    // Auth request bodies are a handful of fields; anything larger is not worth parsing
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final TokenBucketRateLimiter ipLimiter;
+    private final TokenBucketRateLimiter identityLimiter;
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           @Value("${rate-limit.ip.capacity:20}") int ipCapacity,
+                           @Value("${rate-limit.ip.refill-period-seconds:60}") long ipRefillSeconds,
+                           @Value("${rate-limit.identity.capacity:5}") int identityCapacity,
+                           @Value("${rate-limit.identity.refill-period-seconds:300}") long identityRefillSeconds) {
+        this.objectMapper = objectMapper;
+        this.ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefillSeconds, TimeUnit.SECONDS);
+        this.identityLimiter = new TokenBucketRateLimiter(identityCapacity, identityRefillSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        return !"POST".equals(request.getMethod()) || !LIMITED_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        if (!ipLimiter.tryAcquire("ip:" + request.getRemoteAddr())) {
+            reject(response);
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        JsonNode body = parseBody(cachedRequest.body);
+        if (body != null) {
+            String email = body.path("email").asText(null);
+            if (email != null && !identityLimiter.tryAcquire("email:" + email.trim().toLowerCase())) {
+                reject(response);
+                return;
+            }
+            String phoneNumber = body.path("phoneNumber").asText(null);
+            if (phoneNumber != null && !identityLimiter.tryAcquire("phone:" + phoneNumber.trim())) {
+                reject(response);
+                return;
+            }
+        }
+
+        filterChain.doFilter(cachedRequest, response);
+    }
+
+    public long getRejectedCount() {
+        return ipLimiter.getRejectedCount() + identityLimiter.getRejectedCount();
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictIdleBuckets() {
+        ipLimiter.evictIdle();
+        identityLimiter.evictIdle();
+    }
+
+    private JsonNode parseBody(byte[] body) {
+        if (body.length == 0 || body.length > MAX_BODY_BYTES) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            // Let the controller report the malformed body
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        log.warn("Rate limit exceeded, total rejected: {}", getRejectedCount());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(
+                "{\"success\":false,\"message\":\"Too many requests. Please try again later.\",\"error\":\"RATE_LIMITED\"}");
+    }
+
+    // Buffers the request body so it can be inspected here and read again by the controller
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+        }
+    }
+}
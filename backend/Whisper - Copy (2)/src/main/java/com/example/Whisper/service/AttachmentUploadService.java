@@ -0,0 +1,311 @@
+package com.example.Whisper.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.Whisper.dto.AttachmentUploadRequest;
+import com.example.Whisper.dto.AttachmentUploadStatus;
+import com.example.Whisper.model.AttachmentType;
+import com.example.Whisper.model.AttachmentUpload;
+import com.example.Whisper.model.Chat;
+import com.example.Whisper.model.Message;
+import com.example.Whisper.model.MessageAttachment;
+import com.example.Whisper.repositoty.AttachmentUploadRepository;
+import com.example.Whisper.repositoty.UserRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resumable chunked uploads for message attachments.
+ *
+ * A client starts an upload, then PUTs chunks at the offset the server reports; each
+ * chunk is streamed from the request straight into a part file at that position, and
+ * the part file's length is the offset, so an interrupted upload resumes from whatever
+ * reached disk. Completing the upload moves the file into {@link MediaStorage} and
+ * only then creates the message, so chats never see half-uploaded attachments.
+ * Abandoned uploads are deleted after {@code attachments.upload-expiry-hours}.
+ */
+@Service
+@Slf4j
+public class AttachmentUploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String FOLDER = "attachments";
+
+    private final AttachmentUploadRepository uploadRepository;
+    private final UserRepository userRepository;
+    private final ChatMembershipService chatMembershipService;
+    private final MessageService messageService;
+    private final MediaStorage mediaStorage;
+    private final Path uploadDir;
+    private final long maxSize;
+    private final long maxChunkSize;
+    private final long expiryHours;
+    private final Timer chunkTimer;
+    private final DistributionSummary chunkBytes;
+    private final Timer completeTimer;
+
+    @Autowired
+    public AttachmentUploadService(AttachmentUploadRepository uploadRepository, UserRepository userRepository,
+                                   ChatMembershipService chatMembershipService, MessageService messageService,
+                                   MediaStorage mediaStorage, MeterRegistry meterRegistry,
+                                   @Value("${attachments.upload-dir:./uploads}") String uploadDir,
+                                   @Value("${attachments.max-size:104857600}") long maxSize,
+                                   @Value("${attachments.max-chunk-size:8388608}") long maxChunkSize,
+                                   @Value("${attachments.upload-expiry-hours:24}") long expiryHours) {
+        this.uploadRepository = uploadRepository;
+        this.userRepository = userRepository;
+        this.chatMembershipService = chatMembershipService;
+        this.messageService = messageService;
+        this.mediaStorage = mediaStorage;
+        this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.maxSize = maxSize;
+        this.maxChunkSize = maxChunkSize;
+        this.expiryHours = expiryHours;
+        this.chunkTimer = UploadMetrics.uploadTimer(meterRegistry, "attachment-chunk");
+        this.chunkBytes = UploadMetrics.uploadBytes(meterRegistry, "attachment-chunk");
+        this.completeTimer = UploadMetrics.uploadTimer(meterRegistry, "attachment-complete");
+    }
+
+    public AttachmentUploadStatus start(String phone, long chatId, AttachmentUploadRequest request) throws IOException {
+        if (request.getFileName() == null || request.getFileName().trim().isEmpty()) {
+            throw new RuntimeException("File name is required");
+        }
+        if (request.getSize() <= 0 || request.getSize() > maxSize) {
+            throw new RuntimeException("Attachment size must be between 1 and " + maxSize + " bytes");
+        }
+        long userId = userRepository.findIdByPhoneNumber(phone)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!chatMembershipService.isParticipant(chatId, userId)) {
+            throw new RuntimeException("You are not a participant of this chat");
+        }
+
+        AttachmentUpload upload = new AttachmentUpload();
+        upload.setId(UUID.randomUUID().toString());
+        upload.setChatId(chatId);
+        upload.setUploaderId(userId);
+        upload.setFileName(request.getFileName().trim());
+        upload.setContentType(request.getContentType());
+        upload.setSize(request.getSize());
+        upload.setCaption(request.getCaption());
+        upload.setCreatedAt(LocalDateTime.now());
+
+        Files.createDirectories(uploadDir);
+        Files.createFile(partFile(upload.getId()));
+        uploadRepository.save(upload);
+        return status(upload, 0);
+    }
+
+    public AttachmentUploadStatus getStatus(String phone, String uploadId) throws IOException {
+        AttachmentUpload upload = requireUpload(phone, uploadId);
+        return status(upload, Files.size(partFile(uploadId)));
+    }
+
+    // Appends one chunk; the offset must equal the bytes already received so retries of an
+    // acknowledged chunk are rejected instead of being written twice
+    public AttachmentUploadStatus writeChunk(String phone, String uploadId, long offset, InputStream content) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return doWriteChunk(phone, uploadId, offset, content);
+        } finally {
+            chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private AttachmentUploadStatus doWriteChunk(String phone, String uploadId, long offset, InputStream content) throws IOException {
+        AttachmentUpload upload = requireUpload(phone, uploadId);
+        Path part = partFile(uploadId);
+
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            FileLock lock = tryLock(channel);
+            if (lock == null) {
+                throw new RuntimeException("Another chunk of this upload is being written");
+            }
+            try {
+                long received = channel.size();
+                if (offset != received) {
+                    throw new RuntimeException("Expected offset " + received + " but got " + offset);
+                }
+
+                long limit = Math.min(maxChunkSize, upload.getSize() - received);
+                long position = received;
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                ReadableByteChannel in = Channels.newChannel(content);
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    if (position - received + buffer.remaining() > limit) {
+                        // Keep what fits so a resumed upload continues from valid data
+                        channel.truncate(position);
+                        throw new RuntimeException("Chunk exceeds the allowed size of " + limit + " bytes");
+                    }
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                    buffer.clear();
+                }
+                channel.force(false);
+                chunkBytes.record(position - received);
+                return status(upload, position);
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    // Stores the finished file and sends it as a message; the caller broadcasts the result
+    public Message complete(String phone, String uploadId) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return doComplete(phone, uploadId);
+        } finally {
+            completeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Message doComplete(String phone, String uploadId) throws IOException {
+        AttachmentUpload upload = requireUpload(phone, uploadId);
+        Path part = partFile(uploadId);
+
+        // Holding the part file lock until the upload row is gone keeps a retried complete
+        // from sending the message twice. Nothing is deleted before the message is saved, so
+        // a failed send leaves the upload in place to complete again
+        Message sent;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            FileLock lock = tryLock(channel);
+            if (lock == null) {
+                throw new RuntimeException("Upload is busy");
+            }
+            try {
+                if (!uploadRepository.existsById(uploadId)) {
+                    throw new RuntimeException("Upload not found");
+                }
+                long received = channel.size();
+                if (received != upload.getSize()) {
+                    throw new RuntimeException("Upload incomplete: received " + received + " of " + upload.getSize() + " bytes");
+                }
+                StoredMedia media;
+                try (InputStream in = Files.newInputStream(part)) {
+                    media = mediaStorage.store(in, FOLDER, upload.getContentType());
+                }
+                sent = messageService.sendMessage(attachmentMessage(upload, media, part), phone);
+                uploadRepository.delete(upload);
+            } finally {
+                lock.release();
+            }
+        }
+        Files.deleteIfExists(part);
+        return sent;
+    }
+
+    private Message attachmentMessage(AttachmentUpload upload, StoredMedia media, Path part) {
+        MessageAttachment attachment = new MessageAttachment();
+        attachment.setType(AttachmentType.fromContentType(upload.getContentType()));
+        attachment.setFileName(upload.getFileName());
+        attachment.setContentType(upload.getContentType());
+        attachment.setSize(upload.getSize());
+        attachment.setStorageKey(media.getKey());
+        attachment.setUrl(media.getUrl());
+        if (attachment.getType() == AttachmentType.IMAGE) {
+            readDimensions(part, attachment);
+        }
+
+        Chat chat = new Chat();
+        chat.setId(upload.getChatId());
+        Message message = new Message();
+        message.setChat(chat);
+        message.setContent(upload.getCaption() != null && !upload.getCaption().trim().isEmpty()
+                ? upload.getCaption().trim()
+                : upload.getFileName());
+        message.setAttachment(attachment);
+        return message;
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000)
+    public void deleteExpiredUploads() {
+        for (AttachmentUpload upload : uploadRepository.findByCreatedAtBefore(LocalDateTime.now().minusHours(expiryHours))) {
+            try {
+                Files.deleteIfExists(partFile(upload.getId()));
+                uploadRepository.delete(upload);
+            } catch (IOException e) {
+                log.warn("Could not delete expired upload {}: {}", upload.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private AttachmentUpload requireUpload(String phone, String uploadId) {
+        AttachmentUpload upload = uploadRepository.findById(uploadId)
+                .orElseThrow(() -> new RuntimeException("Upload not found"));
+        long userId = userRepository.findIdByPhoneNumber(phone)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (upload.getUploaderId() != userId) {
+            throw new RuntimeException("Upload not found");
+        }
+        return upload;
+    }
+
+    private AttachmentUploadStatus status(AttachmentUpload upload, long offset) {
+        return new AttachmentUploadStatus(upload.getId(), offset, upload.getSize(), maxChunkSize);
+    }
+
+    private Path partFile(String uploadId) {
+        // Ids are server generated UUIDs; parsing rejects anything that could escape the directory
+        return uploadDir.resolve(UUID.fromString(uploadId) + ".part");
+    }
+
+    private FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    // Reads only the image header, not the pixels
+    private void readDimensions(Path file, MessageAttachment attachment) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                attachment.setWidth(reader.getWidth(0));
+                attachment.setHeight(reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            log.info("Could not read image dimensions of {}: {}", attachment.getFileName(), e.getMessage());
+        }
+    }
+}
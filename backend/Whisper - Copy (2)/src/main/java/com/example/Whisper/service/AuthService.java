@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,19 +19,26 @@ import com.example.Whisper.model.OtpType;
 import com.example.Whisper.model.User;
 import com.example.Whisper.repositoty.UserRepository;
 import com.example.Whisper.util.JwtUtil;
+import com.example.Whisper.util.PhoneNumbers;
+
+import lombok.extern.slf4j.Slf4j;
 
 @Service
+@Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
     private final OtpService otpService;
     private final JwtUtil jwtUtil;
+    private final UserSearchIndex userSearchIndex;
 
     @Autowired
-    public AuthService(UserRepository userRepository, OtpService otpService, JwtUtil jwtUtil) {
+    public AuthService(UserRepository userRepository, OtpService otpService, JwtUtil jwtUtil,
+                       UserSearchIndex userSearchIndex) {
         this.userRepository = userRepository;
         this.otpService = otpService;
         this.jwtUtil = jwtUtil;
+        this.userSearchIndex = userSearchIndex;
     }
 
     public OtpResponse sendRegistrationOtp(SendOtpRequest request) {
@@ -57,7 +65,7 @@ public class AuthService {
         request.setType(OtpType.LOGIN);
         User user = userRepository.findByEmail(request.getEmail().trim().toLowerCase())
                 .orElseThrow(() -> new RuntimeException("User not found with this email. Please check your email or register first."));
-        return otpService.sendOtp(request);
+        return otpService.sendOtp(request, user.getPhoneNumber());
     }
 
     @Transactional
@@ -77,7 +85,8 @@ public class AuthService {
         if (request.getEmail() == null || request.getEmail().trim().isEmpty()) {
             throw new RuntimeException("Email is required");
         }
-        if (request.getPhoneNumber() == null || request.getPhoneNumber().trim().isEmpty()) {
+        String phoneNumber = PhoneNumbers.normalize(request.getPhoneNumber());
+        if (phoneNumber.isEmpty()) {
             throw new RuntimeException("Phone number is required");
         }
         if (request.getUserName() == null || request.getUserName().trim().isEmpty()) {
@@ -89,26 +98,11 @@ public class AuthService {
         
         // Normalize email to lowercase
         String normalizedEmail = request.getEmail().trim().toLowerCase();
-        
-        // Check if user already exists with this email
-        if (userRepository.existsByEmail(normalizedEmail)) {
-            throw new RuntimeException("User already exists with this email");
-        }
-        
-        // Check if user already exists with this phone number
-        if (userRepository.existsByPhoneNumber(request.getPhoneNumber().trim())) {
-            throw new RuntimeException("User already exists with this phone number");
-        }
-        
-        // Check if username already exists
-        if (userRepository.existsByUserName(request.getUserName().trim())) {
-            throw new RuntimeException("Username already taken. Please choose a different username.");
-        }
 
         // Create new user
         User user = new User();
         user.setEmail(normalizedEmail);
-        user.setPhoneNumber(request.getPhoneNumber().trim());
+        user.setPhoneNumber(phoneNumber);
         user.setProfileImageUrl(request.getProfileImageUrl());
         user.setUserName(request.getUserName().trim());
         user.setFullname(request.getFullname().trim());
@@ -116,10 +110,15 @@ public class AuthService {
         user.setOnline(true);
         user.setLastSeen(LocalDateTime.now());
 
-        System.out.println("About to save user with profileImageUrl: " + user.getProfileImageUrl());
-        System.out.println("Request profileImageUrl: " + request.getProfileImageUrl());
-        user = userRepository.save(user);
-        System.out.println("User saved with ID: " + user.getId() + ", profileImageUrl: " + user.getProfileImageUrl());
+        // Single INSERT; the unique constraints on email, phone number and username
+        // replace the separate exists checks
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException(duplicateUserMessage(e), e);
+        }
+        log.info("Registered user {}", user.getId());
+        userSearchIndex.index(user);
 
         // Generate tokens (using phone number as identifier)
         String token = jwtUtil.generateToken(user.getPhoneNumber());
@@ -141,18 +140,13 @@ public class AuthService {
             throw new RuntimeException(otpResponse.getMessage());
         }
 
-        // Find user by email - verify the user exists
-        userRepository.findByEmail(request.getEmail().trim().toLowerCase())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Find user by email to get full user object for response
+        // One SELECT; the status change is flushed as a single UPDATE on commit
         User user = userRepository.findByEmail(request.getEmail().trim().toLowerCase())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Update online status
         user.setOnline(true);
         user.setLastSeen(LocalDateTime.now());
-        user = userRepository.save(user);
 
         // Generate tokens (using email as identifier)
         String token = jwtUtil.generateToken(user.getPhoneNumber());
@@ -164,6 +158,20 @@ public class AuthService {
         return new AuthResponse(token, refreshToken, userDto);
     }
 
+    // Maps a unique constraint violation on users to the message the old exists checks returned
+    private String duplicateUserMessage(DataIntegrityViolationException e) {
+        if (UserConstraints.violated(e, UserConstraints.EMAIL)) {
+            return "User already exists with this email";
+        }
+        if (UserConstraints.violated(e, UserConstraints.PHONE_NUMBER)) {
+            return "User already exists with this phone number";
+        }
+        if (UserConstraints.violated(e, UserConstraints.USER_NAME)) {
+            return "Username already taken. Please choose a different username.";
+        }
+        return "Failed to register user";
+    }
+
     private UserDto convertToDto(User user) {
         UserDto dto = new UserDto();
         dto.setId(user.getId());
@@ -174,6 +182,9 @@ public class AuthService {
         dto.setOnline(user.isOnline());
         dto.setLastSeen(user.getLastSeen());
         dto.setProfileImageUrl(user.getProfileImageUrl());
+        dto.setProfileImageSmallUrl(user.getProfileImageSmallUrl());
+        dto.setProfileImageMediumUrl(user.getProfileImageMediumUrl());
+        dto.setProfileImageLargeUrl(user.getProfileImageLargeUrl());
         return dto;
     }
 
@@ -0,0 +1,164 @@
+package com.example.Whisper.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.Whisper.model.Chat;
+import com.example.Whisper.repositoty.ChatRepository;
+import com.example.Whisper.repositoty.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * In-memory index of chat membership, so checking whether a user may send to or
+ * subscribe to a chat is a map lookup instead of a join on chat_participents.
+ * Participant ids are loaded lazily per chat and kept as sorted long arrays; loads run
+ * outside the maps, so a slow query never blocks lookups of other chats.
+ * Eviction also drops the chat's Chat.participents entry from the second-level cache,
+ * since membership changes are native statements Hibernate cannot track.
+ */
+@Service
+public class ChatMembershipService {
+
+    private final ChatRepository chatRepository;
+    private final UserRepository userRepository;
+    private final SessionFactory sessionFactory;
+
+    private static final String PARTICIPANTS_ROLE = Chat.class.getName() + ".participents";
+
+    // Chat id -> sorted participant user ids
+    private final ConcurrentHashMap<Long, long[]> participantsByChat = new ConcurrentHashMap<>();
+
+    // Bumped by every eviction; a load that saw an eviction while it ran drops its own result
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Phone number (the principal name) <-> user id; phone numbers never move between users.
+    // Bounded, since every user who sends or subscribes ends up here
+    private final Cache<String, Long> userIdsByPhone;
+    private final Cache<Long, String> phonesByUserId;
+
+    @Autowired
+    public ChatMembershipService(ChatRepository chatRepository, UserRepository userRepository,
+                                 EntityManagerFactory entityManagerFactory,
+                                 @Value("${chat.membership.max-users:100000}") long maxUsers) {
+        this.chatRepository = chatRepository;
+        this.userRepository = userRepository;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.userIdsByPhone = Caffeine.newBuilder().maximumSize(maxUsers).build();
+        this.phonesByUserId = Caffeine.newBuilder().maximumSize(maxUsers).build();
+    }
+
+    public boolean isParticipant(long chatId, String phone) {
+        if (phone == null) {
+            return false;
+        }
+        Long userId = userIdsByPhone.getIfPresent(phone);
+        if (userId == null) {
+            // Unknown phones are not cached, same as unknown chats
+            userId = userRepository.findIdByPhoneNumber(phone).orElse(null);
+            if (userId == null) {
+                return false;
+            }
+            remember(userId, phone);
+        }
+        return isParticipant(chatId, userId);
+    }
+
+    public boolean isParticipant(long chatId, long userId) {
+        long[] participants = participants(chatId);
+        return participants != null && Arrays.binarySearch(participants, userId) >= 0;
+    }
+
+    // Sorted participant ids of the chat, or an empty array if the chat does not exist
+    public long[] getParticipantIds(long chatId) {
+        long[] participants = participants(chatId);
+        return participants != null ? participants : new long[0];
+    }
+
+    // Phone number of a user, normally already known from loading one of their chats
+    public String getPhoneNumber(long userId) {
+        String phone = phonesByUserId.getIfPresent(userId);
+        if (phone == null) {
+            phone = userRepository.findPhoneNumberById(userId).orElse(null);
+            if (phone != null) {
+                remember(userId, phone);
+            }
+        }
+        return phone;
+    }
+
+    // Inside a transaction the entry is dropped again after commit, so a load that raced
+    // with the transaction cannot leave the old membership cached
+    public void evict(long chatId) {
+        drop(chatId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop(chatId);
+                }
+            });
+        }
+    }
+
+    private void drop(long chatId) {
+        evictions.incrementAndGet();
+        participantsByChat.remove(chatId);
+        sessionFactory.getCache().evictCollectionData(PARTICIPANTS_ROLE, chatId);
+    }
+
+    // Cached participants, loading them on a miss. Concurrent misses may both query; the
+    // first result stored wins. Unknown chats are not cached, so probing random ids cannot
+    // grow the map
+    private long[] participants(long chatId) {
+        long[] participants = participantsByChat.get(chatId);
+        if (participants != null) {
+            return participants;
+        }
+        long seen = evictions.get();
+        participants = loadParticipants(chatId);
+        if (participants == null) {
+            return null;
+        }
+        long[] existing = participantsByChat.putIfAbsent(chatId, participants);
+        if (existing != null) {
+            return existing;
+        }
+        if (evictions.get() != seen) {
+            // The rows may predate the eviction; serve them to this caller only
+            participantsByChat.remove(chatId, participants);
+        }
+        return participants;
+    }
+
+    private long[] loadParticipants(long chatId) {
+        List<Object[]> rows = chatRepository.findParticipantIdsAndPhones(chatId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        long[] participants = new long[rows.size()];
+        for (int i = 0; i < participants.length; i++) {
+            long userId = (Long) rows.get(i)[0];
+            participants[i] = userId;
+            remember(userId, (String) rows.get(i)[1]);
+        }
+        Arrays.sort(participants);
+        return participants;
+    }
+
+    private void remember(long userId, String phone) {
+        userIdsByPhone.put(phone, userId);
+        phonesByUserId.put(userId, phone);
+    }
+}
@@ -1,13 +1,21 @@
     package com.example.Whisper.service;
 
+    import com.example.Whisper.dto.GroupChatDTO;
     import com.example.Whisper.model.Chat;
+    import com.example.Whisper.model.ChatMember;
+    import com.example.Whisper.model.ChatRole;
     import com.example.Whisper.model.Message;
     import com.example.Whisper.model.User;
+    import com.example.Whisper.repositoty.ChatMemberRepository;
     import com.example.Whisper.repositoty.ChatRepository;
     import com.example.Whisper.repositoty.UserRepository;
-    import jakarta.transaction.Transactional;
+    import com.example.Whisper.util.PhoneNumbers;
     import org.springframework.beans.factory.annotation.Autowired;
+    import org.springframework.beans.factory.annotation.Value;
     import org.springframework.stereotype.Service;
+    import org.springframework.transaction.annotation.Transactional;
+    import org.springframework.transaction.support.TransactionSynchronization;
+    import org.springframework.transaction.support.TransactionSynchronizationManager;
 
     import java.util.*;
     import java.util.stream.Collectors;
@@ -17,63 +25,241 @@
 
         private final ChatRepository chatRepository;
         private final UserRepository userRepository;
+        private final ChatMembershipService chatMembershipService;
+        private final ChatMemberRepository chatMemberRepository;
+        private final WebSocketService webSocketService;
+        private final int maxGroupMembers;
 
         @Autowired
-        public ChatService(ChatRepository chatRepository, UserRepository userRepository) {
+        public ChatService(ChatRepository chatRepository, UserRepository userRepository,
+                           ChatMembershipService chatMembershipService, ChatMemberRepository chatMemberRepository,
+                           WebSocketService webSocketService,
+                           @Value("${chat.group.max-members:1000}") int maxGroupMembers) {
             this.chatRepository = chatRepository;
             this.userRepository = userRepository;
+            this.chatMembershipService = chatMembershipService;
+            this.chatMemberRepository = chatMemberRepository;
+            this.webSocketService = webSocketService;
+            this.maxGroupMembers = maxGroupMembers;
         }
 
         public Chat findChatByExactParticipants(Set<User> targetUsers) {
-            Set<Long> userIds = targetUsers.stream()
-                    .map(User::getId)
-                    .collect(Collectors.toSet());
+            return chatRepository.findByParticipantKey(participantKey(targetUsers)).orElse(null);
+        }
 
-            List<Chat> possibleChats = chatRepository.findChatsByParticipantIds(userIds, userIds.size());
+        @Transactional
+        public Chat startChat(String userPhone, String otherPhone) {
+            User user = userRepository.findByPhoneNumber(userPhone)
+                    .orElseThrow(() -> new RuntimeException("User not Found"));
+            User otherUser = userRepository.findByPhoneNumber(PhoneNumbers.normalize(otherPhone))
+                    .orElseThrow(() -> new RuntimeException("User not Found"));
 
-            for (Chat chat : possibleChats) {
-                Set<Long> chatUserIds = chat.getParticipents()
-                        .stream()
-                        .map(User::getId)
-                        .collect(Collectors.toSet());
+            Set<User> participants = new HashSet<>(Arrays.asList(user, otherUser));
+            String key = participantKey(participants);
 
-                if (chatUserIds.equals(userIds)) {
-                    return chat;
+            Optional<Chat> existingChat = chatRepository.findByParticipantKey(key);
+            if (existingChat.isPresent()) {
+                return existingChat.get();
+            }
+
+            try {
+                // Insert-on-conflict: if another request created this chat concurrently we
+                // wait for it on the unique index and then read its row instead of duplicating it
+                int inserted = chatRepository.insertIfAbsent(key);
+                Chat chat = chatRepository.findByParticipantKey(key)
+                        .orElseThrow(() -> new RuntimeException("Chat not found"));
+
+                if (inserted == 1) {
+                    chat.setParticipents(participants);
+                    chat = chatRepository.saveAndFlush(chat);
+                    chatMembershipService.evict(chat.getId());
                 }
+                return chat;
+
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Failed to create chat: " + e.getMessage(), e);
+            }
+        }
+
+        @Transactional
+        public GroupChatDTO createGroup(String creatorPhone, String name, List<String> memberPhones) {
+            if (name == null || name.trim().isEmpty()) {
+                throw new RuntimeException("Group name is required");
             }
+            User creator = userRepository.findByPhoneNumber(creatorPhone)
+                    .orElseThrow(() -> new RuntimeException("User not Found"));
+
+            Set<String> phones = new HashSet<>();
+            for (String memberPhone : memberPhones != null ? memberPhones : List.<String>of()) {
+                phones.add(PhoneNumbers.normalize(memberPhone));
+            }
+            phones.remove(creator.getPhoneNumber());
+            if (phones.size() + 1 > maxGroupMembers) {
+                throw new RuntimeException("A group can have at most " + maxGroupMembers + " members");
+            }
+            List<User> members = userRepository.findByPhoneNumberIn(phones);
+
+            Set<User> participants = new HashSet<>(members);
+            participants.add(creator);
+
+            Chat chat = new Chat();
+            chat.setGroup(true);
+            chat.setName(name.trim());
+            chat.setParticipents(participants);
+            chat = chatRepository.save(chat);
+
+            List<ChatMember> chatMembers = new ArrayList<>();
+            chatMembers.add(newMember(chat, creator, ChatRole.ADMIN));
+            for (User member : members) {
+                chatMembers.add(newMember(chat, member, ChatRole.MEMBER));
+            }
+            chatMemberRepository.saveAll(chatMembers);
 
-            return null;
+            return toGroupDTO(chat);
         }
 
         @Transactional
-        public Chat startChat(String userPhone, String otherPhone) {
-            User user = userRepository.findByPhoneNumber(userPhone)
+        public GroupChatDTO addGroupMember(String actorPhone, long chatId, String phone) {
+            Chat chat = requireGroupAdmin(chatId, actorPhone);
+            User user = userRepository.findByPhoneNumber(PhoneNumbers.normalize(phone))
                     .orElseThrow(() -> new RuntimeException("User not Found"));
-            User otherUser = userRepository.findByPhoneNumber(otherPhone)
+
+            if (chatMemberRepository.findByChatIdAndUserId(chatId, user.getId()).isPresent()) {
+                return toGroupDTO(chat);
+            }
+            if (chatMemberRepository.countByChatId(chatId) >= maxGroupMembers) {
+                throw new RuntimeException("A group can have at most " + maxGroupMembers + " members");
+            }
+
+            chatRepository.addParticipant(chatId, user.getId());
+            chatMemberRepository.save(newMember(chat, user, ChatRole.MEMBER));
+            chatMembershipService.evict(chatId);
+            return toGroupDTO(chat);
+        }
+
+        // Admins can remove anyone; any member can remove themselves (leave the group)
+        @Transactional
+        public GroupChatDTO removeGroupMember(String actorPhone, long chatId, String phone) {
+            phone = PhoneNumbers.normalize(phone);
+            Chat chat = actorPhone.equals(phone) ? requireGroup(chatId) : requireGroupAdmin(chatId, actorPhone);
+            User user = userRepository.findByPhoneNumber(phone)
                     .orElseThrow(() -> new RuntimeException("User not Found"));
+            ChatMember member = chatMemberRepository.findByChatIdAndUserId(chatId, user.getId())
+                    .orElseThrow(() -> new RuntimeException("User is not a member of this group"));
 
-            Set<User> participants = new HashSet<>(Arrays.asList(user, otherUser));
-            Chat existingChat = findChatByExactParticipants(participants);
-            if (existingChat == null) {
-                try {
-                    // Step 1: Create and save chat without participants
-                    Chat chat = new Chat();
-                    Chat savedChat = chatRepository.saveAndFlush(chat);
+            chatRepository.removeParticipant(chatId, user.getId());
+            chatMemberRepository.delete(member);
+            chatMemberRepository.flush();
 
-                    // Step 2: Set participants and update
-                    savedChat.setParticipents(participants);
-                    Chat finalChat = chatRepository.saveAndFlush(savedChat);
+            // Never leave a group without an admin: promote the longest-standing member
+            List<ChatMember> remaining = chatMemberRepository.findByChatIdWithUser(chatId);
+            if (member.getRole() == ChatRole.ADMIN
+                    && remaining.stream().noneMatch(m -> m.getRole() == ChatRole.ADMIN)) {
+                remaining.stream()
+                        .min(Comparator.comparingLong(ChatMember::getId))
+                        .ifPresent(m -> m.setRole(ChatRole.ADMIN));
+            }
 
-                    return finalChat;
+            chatMembershipService.evict(chatId);
+            unsubscribeAfterCommit(user.getPhoneNumber(), chatId);
+            return toGroupDTO(chat);
+        }
 
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to create chat: " + e.getMessage(), e);
+        // The member's open topic subscriptions outlive the removal; they are ended once it commits,
+        // when the evicted membership index already refuses a new SUBSCRIBE
+        private void unsubscribeAfterCommit(String phone, long chatId) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                webSocketService.unsubscribeFromChat(phone, chatId);
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    webSocketService.unsubscribeFromChat(phone, chatId);
                 }
+            });
+        }
+
+        @Transactional
+        public GroupChatDTO updateGroupMemberRole(String actorPhone, long chatId, String phone, ChatRole role) {
+            Chat chat = requireGroupAdmin(chatId, actorPhone);
+            if (role == null) {
+                throw new RuntimeException("Role is required");
+            }
+            User user = userRepository.findByPhoneNumber(PhoneNumbers.normalize(phone))
+                    .orElseThrow(() -> new RuntimeException("User not Found"));
+            ChatMember member = chatMemberRepository.findByChatIdAndUserId(chatId, user.getId())
+                    .orElseThrow(() -> new RuntimeException("User is not a member of this group"));
+            // Same rule as removeGroupMember: the group always keeps an admin
+            if (member.getRole() == ChatRole.ADMIN && role != ChatRole.ADMIN
+                    && chatMemberRepository.countByChatIdAndRole(chatId, ChatRole.ADMIN) <= 1) {
+                throw new RuntimeException("A group must keep at least one admin");
             }
-            return existingChat;
+            member.setRole(role);
+            return toGroupDTO(chat);
+        }
+
+        @Transactional(readOnly = true)
+        public GroupChatDTO getGroup(String phone, long chatId) {
+            Chat chat = requireGroup(chatId);
+            if (!chatMembershipService.isParticipant(chatId, phone)) {
+                throw new RuntimeException("You are not a member of this group");
+            }
+            return toGroupDTO(chat);
+        }
+
+        private Chat requireGroup(long chatId) {
+            Chat chat = chatRepository.findById(chatId)
+                    .orElseThrow(() -> new RuntimeException("Chat not found"));
+            if (!chat.isGroup()) {
+                throw new RuntimeException("Chat is not a group");
+            }
+            return chat;
+        }
+
+        private Chat requireGroupAdmin(long chatId, String actorPhone) {
+            Chat chat = requireGroup(chatId);
+            User actor = userRepository.findByPhoneNumber(actorPhone)
+                    .orElseThrow(() -> new RuntimeException("User not Found"));
+            ChatMember member = chatMemberRepository.findByChatIdAndUserId(chatId, actor.getId())
+                    .orElseThrow(() -> new RuntimeException("You are not a member of this group"));
+            if (member.getRole() != ChatRole.ADMIN) {
+                throw new RuntimeException("Only group admins can do this");
+            }
+            return chat;
+        }
+
+        private ChatMember newMember(Chat chat, User user, ChatRole role) {
+            ChatMember member = new ChatMember();
+            member.setChat(chat);
+            member.setUser(user);
+            member.setRole(role);
+            return member;
+        }
+
+        private GroupChatDTO toGroupDTO(Chat chat) {
+            List<GroupChatDTO.Member> members = chatMemberRepository.findByChatIdWithUser(chat.getId()).stream()
+                    .map(m -> new GroupChatDTO.Member(
+                            m.getUser().getPhoneNumber(),
+                            m.getUser().getFullname(),
+                            m.getUser().getProfileImageUrl(),
+                            m.getUser().getProfileImageSmallUrl(),
+                            m.getRole().name()))
+                    .collect(Collectors.toList());
+            return new GroupChatDTO(chat.getId(), chat.getName(), members);
+        }
+
+        // Canonical key for a set of users: their ids sorted ascending and joined with ':'
+        public static String participantKey(Collection<User> users) {
+            return users.stream()
+                    .mapToLong(User::getId)
+                    .sorted()
+                    .mapToObj(Long::toString)
+                    .collect(Collectors.joining(":"));
         }
 
 
+        @Transactional(readOnly = true)
         public Map<String, List<Message>> getMessageList(Long chatId, String phone) {
             Chat chat = chatRepository.findById(chatId)
                     .orElseThrow(() -> new RuntimeException("Chat not found"));
@@ -0,0 +1,104 @@
+package com.example.Whisper.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.Whisper.repositoty.ContactRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * In-memory index of blocks, so the send and fan-out paths can enforce them without a
+ * query. For each sender phone number it holds the sorted ids of the users who blocked
+ * that number, loaded lazily with one query outside the map; block changes update loaded
+ * entries in place. Bounded, since every sender ever seen gets an entry.
+ */
+@Service
+public class ContactBlockIndex {
+
+    private static final long[] NONE = new long[0];
+
+    private final ContactRepository contactRepository;
+
+    // Blocked phone number -> sorted ids of the users who blocked it
+    private final ConcurrentMap<String, long[]> blockersByPhone;
+
+    // Bumped by every update; a load that saw an update while it ran drops its own result
+    private final AtomicLong updates = new AtomicLong();
+
+    @Autowired
+    public ContactBlockIndex(ContactRepository contactRepository,
+                             @Value("${contacts.block-index.max-phones:100000}") long maxPhones) {
+        this.contactRepository = contactRepository;
+        this.blockersByPhone = Caffeine.newBuilder().maximumSize(maxPhones).<String, long[]>build().asMap();
+    }
+
+    public boolean isBlocked(long blockerUserId, String phoneNumber) {
+        long[] blockers = getBlockerIds(phoneNumber);
+        return blockers.length > 0 && Arrays.binarySearch(blockers, blockerUserId) >= 0;
+    }
+
+    // Sorted ids of the users who blocked this phone number
+    public long[] getBlockerIds(String phoneNumber) {
+        if (phoneNumber == null) {
+            return NONE;
+        }
+        long[] blockers = blockersByPhone.get(phoneNumber);
+        if (blockers != null) {
+            return blockers;
+        }
+        // Same as ChatMembershipService: concurrent misses may both query, the first result stored wins
+        long seen = updates.get();
+        blockers = load(phoneNumber);
+        long[] existing = blockersByPhone.putIfAbsent(phoneNumber, blockers);
+        if (existing != null) {
+            return existing;
+        }
+        if (updates.get() != seen) {
+            // The rows may predate the update; serve them to this caller only
+            blockersByPhone.remove(phoneNumber, blockers);
+        }
+        return blockers;
+    }
+
+    // Applies a block/unblock to an already loaded entry; unloaded numbers pick it up on first use
+    public void update(long blockerUserId, String phoneNumber, boolean blocked) {
+        updates.incrementAndGet();
+        blockersByPhone.computeIfPresent(phoneNumber, (phone, current) -> {
+            int index = Arrays.binarySearch(current, blockerUserId);
+            if (blocked && index < 0) {
+                int insertAt = -index - 1;
+                long[] next = new long[current.length + 1];
+                System.arraycopy(current, 0, next, 0, insertAt);
+                next[insertAt] = blockerUserId;
+                System.arraycopy(current, insertAt, next, insertAt + 1, current.length - insertAt);
+                return next;
+            }
+            if (!blocked && index >= 0) {
+                long[] next = new long[current.length - 1];
+                System.arraycopy(current, 0, next, 0, index);
+                System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+                return next;
+            }
+            return current;
+        });
+    }
+
+    private long[] load(String phoneNumber) {
+        List<Long> ids = contactRepository.findBlockerIds(phoneNumber);
+        if (ids.isEmpty()) {
+            return NONE;
+        }
+        long[] blockers = new long[ids.size()];
+        for (int i = 0; i < blockers.length; i++) {
+            blockers[i] = ids.get(i);
+        }
+        Arrays.sort(blockers);
+        return blockers;
+    }
+}
@@ -1,8 +1,114 @@
 package com.example.Whisper.service;
 
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Whisper.dto.ContactImportEntry;
+import com.example.Whisper.dto.ContactImportResult;
+import com.example.Whisper.repositoty.UserRepository;
+import com.example.Whisper.util.PhoneNumbers;
+
+import jakarta.annotation.PreDestroy;
 
 @Service
 public class ContactService {
+
+    private static final int MATCH_CHUNK_SIZE = 1000;
+    private static final int UPSERT_BATCH_SIZE = 500;
+
+    private static final String UPSERT_CONTACT_SQL =
+            "INSERT INTO contacts (user_id, phone_number, contact_name, is_blocked) VALUES (?, ?, ?, false) " +
+            "ON CONFLICT (user_id, phone_number) DO UPDATE SET contact_name = EXCLUDED.contact_name";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxEntries;
+    private final ExecutorService matchExecutor;
+
+    @Autowired
+    public ContactService(UserRepository userRepository, JdbcTemplate jdbcTemplate,
+                          @Value("${contacts.import.max-entries:10000}") int maxEntries,
+                          @Value("${contacts.import.match-threads:4}") int matchThreads) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxEntries = maxEntries;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.matchExecutor = Executors.newFixedThreadPool(matchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "contact-match-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Transactional
+    public ContactImportResult importContacts(String phone, List<ContactImportEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return new ContactImportResult(0, List.of());
+        }
+        if (entries.size() > maxEntries) {
+            throw new RuntimeException("Too many contacts. At most " + maxEntries + " can be imported at once.");
+        }
+
+        long userId = userRepository.findIdByPhoneNumber(phone)
+                .orElseThrow(() -> new RuntimeException("User not Found"));
+
+        // Normalized phone number -> contact name; later duplicates win like repeated addContact calls
+        Map<String, String> contacts = new LinkedHashMap<>();
+        for (ContactImportEntry entry : entries) {
+            String number = PhoneNumbers.normalize(entry.getPhoneNumber());
+            if (number.isEmpty() || number.equals(phone)) {
+                continue;
+            }
+            String name = entry.getContactName() != null && !entry.getContactName().trim().isEmpty()
+                    ? entry.getContactName().trim()
+                    : number;
+            contacts.put(number, name);
+        }
+
+        List<String> registered = matchRegisteredUsers(new ArrayList<>(contacts.keySet()));
+
+        List<Object[]> rows = new ArrayList<>(contacts.size());
+        contacts.forEach((number, name) -> rows.add(new Object[]{userId, number, name}));
+        jdbcTemplate.batchUpdate(UPSERT_CONTACT_SQL, rows, UPSERT_BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, (Long) row[0]);
+            ps.setString(2, (String) row[1]);
+            ps.setString(3, (String) row[2]);
+        });
+
+        return new ContactImportResult(rows.size(), registered);
+    }
+
+    // Looks up the numbers in IN-list chunks, running the chunks concurrently
+    private List<String> matchRegisteredUsers(List<String> numbers) {
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>();
+        for (int i = 0; i < numbers.size(); i += MATCH_CHUNK_SIZE) {
+            List<String> chunk = numbers.subList(i, Math.min(i + MATCH_CHUNK_SIZE, numbers.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> userRepository.findPhoneNumbersIn(chunk), matchExecutor));
+        }
+
+        List<String> registered = new ArrayList<>();
+        for (CompletableFuture<List<String>> chunk : chunks) {
+            registered.addAll(chunk.join());
+        }
+        return registered;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        matchExecutor.shutdown();
+    }
 }
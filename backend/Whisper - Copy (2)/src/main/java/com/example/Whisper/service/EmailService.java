@@ -5,6 +5,8 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -14,6 +16,7 @@ import lombok.extern.slf4j.Slf4j;
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -22,6 +25,8 @@ public class EmailService {
     private String appName;
 
     public void sendOtpEmail(String toEmail, String otp, String purpose) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
         try {
             SimpleMailMessage message = new SimpleMailMessage();
             message.setFrom(fromEmail);
@@ -32,11 +37,18 @@ public class EmailService {
             message.setText(emailBody);
 
             mailSender.send(message);
+            outcome = "success";
             log.info("OTP email sent successfully to: {}", toEmail);
 
         } catch (Exception e) {
             log.error("Failed to send OTP email to: {}", toEmail, e);
             throw new RuntimeException("Failed to send OTP email");
+        } finally {
+            sample.stop(Timer.builder("whisper.email.send")
+                    .description("Sending an OTP email through SMTP")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
         }
     }
 
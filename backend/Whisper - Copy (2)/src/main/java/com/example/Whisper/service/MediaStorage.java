@@ -0,0 +1,12 @@
+package com.example.Whisper.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Where uploaded media ends up. Implementations read the content as a stream and must
+ * not buffer whole files in memory.
+ */
+public interface MediaStorage {
+    StoredMedia store(InputStream content, String folder, String contentType) throws IOException;
+}
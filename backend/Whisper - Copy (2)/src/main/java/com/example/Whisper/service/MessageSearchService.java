@@ -0,0 +1,180 @@
+package com.example.Whisper.service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.Whisper.dto.MessageSearchResultDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Full-text search over message content, backed by a tsvector column on the message
+ * table with a GIN index (created by database_fix.sql).
+ *
+ * The vector is filled in off the send path: new message ids are queued and a scheduled
+ * task indexes them in batches. Rows whose vector is still null (from before the column
+ * existed, or dropped because the queue was full) are picked up by the same task, so the
+ * queue can be lossy. Deleted messages leave the index with their row.
+ */
+@Service
+@Slf4j
+public class MessageSearchService {
+
+    public static final int MAX_PAGE_SIZE = 50;
+
+    // Adding a nullable column without a default only touches the catalog, like the columns
+    // ddl-auto adds. The indexes are built by database_fix.sql with CREATE INDEX CONCURRENTLY,
+    // since a plain CREATE INDEX blocks writes to message for the whole build
+    private static final String CREATE_COLUMN_SQL =
+            "ALTER TABLE message ADD COLUMN IF NOT EXISTS search_vector tsvector";
+    private static final List<String> INDEXES =
+            List.of("idx_message_search_vector", "idx_message_search_vector_null");
+    private static final String EXISTING_INDEXES_SQL =
+            "SELECT indexname FROM pg_indexes WHERE tablename = 'message' AND indexname IN (?, ?)";
+
+    private static final String INDEX_IDS_SQL =
+            "UPDATE message SET search_vector = to_tsvector(?::regconfig, content) WHERE id = ANY(?)";
+    private static final String INDEX_UNINDEXED_SQL =
+            "UPDATE message SET search_vector = to_tsvector(?::regconfig, content) " +
+            "WHERE id IN (SELECT id FROM message WHERE search_vector IS NULL LIMIT ?)";
+
+    // Ranked by relevance, then newest first; only chats the caller participates in
+    private static final String SEARCH_SQL =
+            "SELECT m.id, m.chat_id, u.phone_number, m.content, m.time_send, ts_rank(m.search_vector, q) AS rank " +
+            "FROM message m JOIN users u ON u.id = m.sender_id, websearch_to_tsquery(?::regconfig, ?) q " +
+            "WHERE m.search_vector @@ q " +
+            "AND m.chat_id IN (SELECT cp.chat_id FROM chat_participents cp WHERE cp.user_id = ?) " +
+            "ORDER BY rank DESC, m.time_send DESC, m.id DESC LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String textSearchConfig;
+    private final int batchSize;
+    private final LinkedBlockingQueue<Long> pending;
+
+    // Stays false until the column exists, so the indexer does nothing against an old schema
+    private volatile boolean ready;
+
+    @Autowired
+    public MessageSearchService(JdbcTemplate jdbcTemplate,
+                                @Value("${message.search.config:simple}") String textSearchConfig,
+                                @Value("${message.search.batch-size:1000}") int batchSize,
+                                @Value("${message.search.queue-capacity:100000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.textSearchConfig = textSearchConfig;
+        this.batchSize = batchSize;
+        this.pending = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSchema() {
+        try {
+            jdbcTemplate.execute(CREATE_COLUMN_SQL);
+            ready = true;
+        } catch (DataAccessException e) {
+            log.warn("Message search disabled, could not add the search column: {}", e.getMessage());
+            return;
+        }
+
+        List<String> existing = jdbcTemplate.queryForList(EXISTING_INDEXES_SQL, String.class, INDEXES.toArray());
+        for (String index : INDEXES) {
+            if (!existing.contains(index)) {
+                log.warn("Index {} on message is missing, search and indexing scan the table; create it with database_fix.sql", index);
+            }
+        }
+    }
+
+    // Queues a message for indexing once the surrounding transaction (if any) has committed
+    public void enqueue(long messageId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.offer(messageId);
+                }
+            });
+        } else {
+            pending.offer(messageId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${message.search.index-delay-ms:500}")
+    public void indexPending() {
+        if (!ready) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int indexed = 0;
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (pending.drainTo(batch, batchSize) > 0) {
+            indexed += indexIds(batch);
+            batch.clear();
+        }
+
+        // Catch up on anything the queue never saw
+        int updated;
+        do {
+            updated = jdbcTemplate.update(INDEX_UNINDEXED_SQL, textSearchConfig, batchSize);
+            indexed += updated;
+        } while (updated == batchSize);
+
+        if (indexed >= batchSize) {
+            long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            log.info("Indexed {} messages for search in {} ms ({} msg/s)", indexed, elapsedMs, indexed * 1000L / elapsedMs);
+        }
+    }
+
+    public List<MessageSearchResultDTO> search(long userId, String query, int page, int size) {
+        if (!ready || query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int offset = Math.max(0, page) * limit;
+
+        return jdbcTemplate.query(SEARCH_SQL,
+                (rs, rowNum) -> {
+                    Timestamp timeSend = rs.getTimestamp("time_send");
+                    return new MessageSearchResultDTO(
+                            rs.getLong("id"),
+                            rs.getLong("chat_id"),
+                            rs.getString("phone_number"),
+                            rs.getString("content"),
+                            timeSend != null ? timeSend.toLocalDateTime() : null,
+                            rs.getDouble("rank"));
+                },
+                textSearchConfig, query.trim(), userId, limit, offset);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private int indexIds(List<Long> ids) {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            Array array = connection.createArrayOf("bigint", ids.toArray());
+            try (PreparedStatement statement = connection.prepareStatement(INDEX_IDS_SQL)) {
+                statement.setString(1, textSearchConfig);
+                statement.setArray(2, array);
+                return statement.executeUpdate();
+            } finally {
+                array.free();
+            }
+        });
+    }
+}
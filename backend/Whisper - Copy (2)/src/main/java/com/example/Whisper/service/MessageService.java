@@ -1,30 +1,86 @@
 package com.example.Whisper.service;
 
+import com.example.Whisper.dto.MessageSearchResultDTO;
+import com.example.Whisper.jfr.MessageSendEvent;
 import com.example.Whisper.model.Chat;
+import com.example.Whisper.model.ChatMember;
 import com.example.Whisper.model.Message;
 import com.example.Whisper.model.User;
+import com.example.Whisper.repositoty.ChatMemberRepository;
 import com.example.Whisper.repositoty.ChatRepository;
 import com.example.Whisper.repositoty.MessageRepository;
 import com.example.Whisper.repositoty.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class MessageService {
     private final ChatRepository chatRepository;
     private final UserRepository userRepository;
     private final MessageRepository messageRepository;
+    private final ChatMembershipService chatMembershipService;
+    private final ContactBlockIndex contactBlockIndex;
+    private final ChatMemberRepository chatMemberRepository;
+    private final MessageSearchService messageSearchService;
+    private final Timer sendSuccessTimer;
+    private final Timer sendFailureTimer;
 
     @Autowired
-    public MessageService(ChatRepository chatRepository, UserRepository userRepository, MessageRepository messageRepository) {
+    public MessageService(ChatRepository chatRepository, UserRepository userRepository, MessageRepository messageRepository,
+                          ChatMembershipService chatMembershipService, ContactBlockIndex contactBlockIndex,
+                          ChatMemberRepository chatMemberRepository, MessageSearchService messageSearchService,
+                          MeterRegistry meterRegistry) {
         this.chatRepository = chatRepository;
         this.userRepository = userRepository;
         this.messageRepository = messageRepository;
+        this.chatMembershipService = chatMembershipService;
+        this.contactBlockIndex = contactBlockIndex;
+        this.chatMemberRepository = chatMemberRepository;
+        this.messageSearchService = messageSearchService;
+        this.sendSuccessTimer = sendTimer(meterRegistry, "success");
+        this.sendFailureTimer = sendTimer(meterRegistry, "failure");
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("whisper.messages.send")
+                .description("Validating and persisting a sent message")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     public Message sendMessage(Message message, String phone) {
+        MessageSendEvent event = new MessageSendEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            Message saved = doSendMessage(message, phone);
+            sendSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.messageId = saved.getId();
+            event.succeeded = true;
+            return saved;
+        } catch (RuntimeException e) {
+            sendFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.chatId = message.getChat() != null ? message.getChat().getId() : 0;
+                event.contentLength = message.getContent() != null ? message.getContent().length() : 0;
+                event.commit();
+            }
+        }
+    }
+
+    private Message doSendMessage(Message message, String phone) {
         // Get chat from the message's chat ID
         Chat chat = chatRepository.findById(message.getChat().getId())
                 .orElseThrow(() -> new RuntimeException("Chat not found"));
@@ -32,6 +88,16 @@ public class MessageService {
         User user = userRepository.findByPhoneNumber(phone)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        // Blocks are checked against in-memory indexes, so this adds no query. In groups a
+        // block only hides the sender from the blocking member, which fan-out takes care of
+        if (!chat.isGroup()) {
+            for (long participantId : chatMembershipService.getParticipantIds(chat.getId())) {
+                if (participantId != user.getId() && contactBlockIndex.isBlocked(participantId, phone)) {
+                    throw new RuntimeException("You cannot send messages to this chat");
+                }
+            }
+        }
+
         // Set message properties
         message.setTimeSend(LocalDateTime.now());
         message.setChat(chat);
@@ -39,9 +105,12 @@ public class MessageService {
         message.setRead(false);
         message.setDelivered(true); // Set as delivered when sent
 
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+        messageSearchService.enqueue(saved.getId());
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Message> getChatMessages(long chatId) {
         Chat chat = chatRepository.findById(chatId)
                 .orElseThrow(() -> new RuntimeException("Chat not found"));
@@ -55,6 +124,7 @@ public class MessageService {
         return messageRepository.save(message);
     }
 
+    @Transactional(readOnly = true)
     public List<Message> getUnreadMessages(String phone) {
         User user = userRepository.findByPhoneNumber(phone)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -62,6 +132,14 @@ public class MessageService {
         return messageRepository.findUnreadMessagesForUser(user);
     }
 
+    @Transactional(readOnly = true)
+    public List<MessageSearchResultDTO> searchMessages(String phone, String query, int page, int size) {
+        long userId = userRepository.findIdByPhoneNumber(phone)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return messageSearchService.search(userId, query, page, size);
+    }
+
+    // The search vector lives on the message row, so deleting the row also removes it from search
     public void deleteMessage(long messageId) {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message not found"));
@@ -75,11 +153,18 @@ public class MessageService {
         return messageRepository.save(message);
     }
 
+    @Transactional(readOnly = true)
     public Long getUnreadMessageCount(long chatId, String phone) {
         Chat chat = chatRepository.findById(chatId)
                 .orElseThrow(() -> new RuntimeException("Chat not found"));
         User user = userRepository.findByPhoneNumber(phone)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        if (chat.isGroup()) {
+            long lastRead = chatMemberRepository.findByChatIdAndUserId(chatId, user.getId())
+                    .map(ChatMember::getLastReadMessageId)
+                    .orElse(0L);
+            return messageRepository.countGroupMessagesAfter(chatId, user.getId(), lastRead);
+        }
         return messageRepository.countUnreadMessagesInChat(user, chat);
     }
 
@@ -88,14 +173,19 @@ public class MessageService {
                 .orElseThrow(() -> new RuntimeException("Chat not found"));
         User user = userRepository.findByPhoneNumber(phone)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        // Get all unread messages in this chat that were sent by others
-        List<Message> unreadMessages = messageRepository.findUnreadMessagesInChatForUser(user, chat);
-        
-        // Mark all as read
-        for (Message message : unreadMessages) {
-            message.setRead(true);
-            messageRepository.save(message);
+
+        // Group read state is per member: move the member's read marker instead of flagging messages
+        if (chat.isGroup()) {
+            ChatMember member = chatMemberRepository.findByChatIdAndUserId(chatId, user.getId())
+                    .orElseThrow(() -> new RuntimeException("User is not a member of this group"));
+            Long latestId = messageRepository.findLatestMessageId(chatId);
+            if (latestId != null && latestId > member.getLastReadMessageId()) {
+                member.setLastReadMessageId(latestId);
+                chatMemberRepository.save(member);
+            }
+            return;
         }
+
+        messageRepository.markUnreadMessagesInChatAsRead(user, chat);
     }
 }
\ No newline at end of file
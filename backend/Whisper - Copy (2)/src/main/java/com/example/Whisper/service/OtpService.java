@@ -4,6 +4,8 @@ import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.Whisper.dto.OtpResponse;
@@ -11,15 +13,18 @@ import com.example.Whisper.dto.SendOtpRequest;
 import com.example.Whisper.dto.VerifyOtpRequest;
 import com.example.Whisper.model.OtpType;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OtpService {
 
     private final EmailService emailService;
+    private final SmsDispatchService smsDispatchService;
+    private final MeterRegistry meterRegistry;
+    private final boolean smsEnabled;
 
     // In-memory storage for OTPs (consider using Redis for production)
     private final ConcurrentHashMap<String, OtpData> otpStorage = new ConcurrentHashMap<>();
@@ -28,7 +33,23 @@ public class OtpService {
     private static final int OTP_EXPIRY_MINUTES = 10;
     private static final SecureRandom random = new SecureRandom();
 
+    @Autowired
+    public OtpService(EmailService emailService, SmsDispatchService smsDispatchService, MeterRegistry meterRegistry,
+                      @Value("${otp.sms.enabled:false}") boolean smsEnabled) {
+        this.emailService = emailService;
+        this.smsDispatchService = smsDispatchService;
+        this.meterRegistry = meterRegistry;
+        this.smsEnabled = smsEnabled;
+    }
+
     public OtpResponse sendOtp(SendOtpRequest request) {
+        return sendOtp(request, null);
+    }
+
+    // With otp.sms.enabled the code is also texted to phoneNumber, when the caller knows it
+    public OtpResponse sendOtp(SendOtpRequest request, String phoneNumber) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
         try {
             String otp = generateOtp();
             String key = generateKey(request.getEmail(), request.getType());
@@ -40,42 +61,72 @@ public class OtpService {
             // Send email
             String purpose = request.getType() == OtpType.REGISTRATION ? "registration" : "login";
             emailService.sendOtpEmail(request.getEmail(), otp, purpose);
+            if (smsEnabled && phoneNumber != null) {
+                sendOtpSms(phoneNumber, otp, purpose);
+            }
 
             // Clean up expired OTPs
             cleanupExpiredOtps();
 
+            outcome = "success";
             log.info("OTP sent successfully to email: {}", request.getEmail());
             return new OtpResponse(true, "OTP sent successfully to your email");
 
         } catch (Exception e) {
             log.error("Failed to send OTP to email: {}", request.getEmail(), e);
             return new OtpResponse(false, "Failed to send OTP. Please try again.");
+        } finally {
+            sample.stop(Timer.builder("whisper.otp.send")
+                    .description("Generating, storing and emailing an OTP")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
         }
     }
 
+    // Queued on the SMS dispatch pool; the email has already gone out, so a rate-limited or
+    // failed SMS is only logged
+    private void sendOtpSms(String phoneNumber, String otp, String purpose) {
+        smsDispatchService.sendSms(phoneNumber, "Your Whisper OTP for " + purpose + " is: " + otp)
+                .whenComplete((sent, error) -> {
+                    if (error != null || !Boolean.TRUE.equals(sent)) {
+                        log.warn("OTP SMS not sent to: {}: {}", phoneNumber,
+                                error != null ? error.getMessage() : "provider returned failure");
+                    }
+                });
+    }
+
     public OtpResponse verifyOtp(VerifyOtpRequest request) {
         String key = generateKey(request.getEmail(), request.getType());
         OtpData otpData = otpStorage.get(key);
 
         if (otpData == null) {
+            countVerification("not_found");
             return new OtpResponse(false, "OTP not found or expired");
         }
 
         if (LocalDateTime.now().isAfter(otpData.getExpiryTime())) {
             otpStorage.remove(key);
+            countVerification("expired");
             return new OtpResponse(false, "OTP has expired");
         }
 
         if (!otpData.getOtp().equals(request.getOtp())) {
+            countVerification("invalid");
             return new OtpResponse(false, "Invalid OTP");
         }
 
         // Remove OTP after successful verification
         otpStorage.remove(key);
+        countVerification("success");
         log.info("OTP verified successfully for email: {}", request.getEmail());
         return new OtpResponse(true, "OTP verified successfully");
     }
 
+    private void countVerification(String result) {
+        meterRegistry.counter("whisper.otp.verify", "result", result).increment();
+    }
+
     private String generateOtp() {
         StringBuilder otp = new StringBuilder();
         for (int i = 0; i < OTP_LENGTH; i++) {
@@ -0,0 +1,256 @@
+package com.example.Whisper.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.Whisper.model.ProfileImageRenditions;
+import com.example.Whisper.model.User;
+import com.example.Whisper.repositoty.ProfileImageRenditionsRepository;
+import com.example.Whisper.repositoty.UserRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores uploaded profile images and generates fixed-size renditions of them, so clients
+ * can fetch a 48 px avatar for message bubbles instead of the original.
+ *
+ * Renditions are produced after the upload returns, on a small pool fed by a bounded
+ * queue; when the queue is full the image simply has no renditions and clients fall back
+ * to the original URL. Each job decodes the image once and scales it down step by step.
+ */
+@Service
+@Slf4j
+public class ProfileImageService {
+
+    public static final int SMALL_SIZE = 48;
+    public static final int MEDIUM_SIZE = 128;
+    public static final int LARGE_SIZE = 512;
+
+    private static final String FOLDER = "profile_pictures";
+    private static final String RENDITION_FOLDER = "profile_pictures/renditions";
+
+    // Refuse to decode anything larger; a 40 MP image is already ~160 MB as a BufferedImage
+    private static final long MAX_PIXELS = 40_000_000L;
+
+    private final MediaStorage mediaStorage;
+    private final ProfileImageRenditionsRepository renditionsRepository;
+    private final UserRepository userRepository;
+    private final UserSearchIndex userSearchIndex;
+    private final ThreadPoolExecutor executor;
+    private final Timer uploadTimer;
+    private final DistributionSummary uploadBytes;
+    private final Timer renditionTimer;
+
+    @Autowired
+    public ProfileImageService(MediaStorage mediaStorage, ProfileImageRenditionsRepository renditionsRepository,
+                               UserRepository userRepository, UserSearchIndex userSearchIndex,
+                               MeterRegistry meterRegistry,
+                               @Value("${media.renditions.threads:2}") int threads,
+                               @Value("${media.renditions.queue-capacity:100}") int queueCapacity) {
+        this.mediaStorage = mediaStorage;
+        this.renditionsRepository = renditionsRepository;
+        this.userRepository = userRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.uploadTimer = UploadMetrics.uploadTimer(meterRegistry, "profile");
+        this.uploadBytes = UploadMetrics.uploadBytes(meterRegistry, "profile");
+        this.renditionTimer = Timer.builder("whisper.renditions")
+                .description("Decoding, scaling and storing the renditions of one image")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-renditions-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Stores the original and queues its renditions; the upload is spooled to a temp file
+    // the rendition job owns, since the multipart file is gone once the request ends
+    public StoredMedia upload(InputStream content, String contentType) throws IOException {
+        long start = System.nanoTime();
+        Path temp = Files.createTempFile("whisper-avatar-", ".tmp");
+        boolean queued = false;
+        try {
+            uploadBytes.record(Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING));
+
+            StoredMedia original;
+            try (InputStream in = Files.newInputStream(temp)) {
+                original = mediaStorage.store(in, FOLDER, contentType);
+            }
+
+            try {
+                executor.execute(() -> createRenditions(original.getUrl(), temp));
+                queued = true;
+            } catch (RejectedExecutionException e) {
+                log.warn("Rendition queue full, skipping renditions for {}", original.getUrl());
+            }
+            return original;
+        } finally {
+            uploadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!queued) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // Copies the renditions of the user's current profile image onto the user, or clears them
+    public void applyRenditions(User user) {
+        ProfileImageRenditions renditions = user.getProfileImageUrl() == null ? null
+                : renditionsRepository.findBySourceUrl(user.getProfileImageUrl()).orElse(null);
+        user.setProfileImageSmallUrl(renditions != null ? renditions.getSmallUrl() : null);
+        user.setProfileImageMediumUrl(renditions != null ? renditions.getMediumUrl() : null);
+        user.setProfileImageLargeUrl(renditions != null ? renditions.getLargeUrl() : null);
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    private void createRenditions(String sourceUrl, Path source) {
+        long start = System.currentTimeMillis();
+        try {
+            // The same image uploaded again already has renditions; only point the users at them
+            ProfileImageRenditions existing = renditionsRepository.findBySourceUrl(sourceUrl).orElse(null);
+            if (existing != null) {
+                attachToUsers(existing);
+                log.info("Reused existing renditions for {}", sourceUrl);
+                return;
+            }
+
+            BufferedImage image = decode(source);
+            if (image == null) {
+                log.info("Not a decodable image, no renditions for {}", sourceUrl);
+                return;
+            }
+
+            // Largest first, each step scaling the previous result
+            BufferedImage large = scaleToFit(image, LARGE_SIZE);
+            BufferedImage medium = scaleToFit(large, MEDIUM_SIZE);
+            BufferedImage small = scaleToFit(medium, SMALL_SIZE);
+
+            ProfileImageRenditions renditions = new ProfileImageRenditions();
+            renditions.setSourceUrl(sourceUrl);
+            renditions.setLargeUrl(storeRendition(large));
+            renditions.setMediumUrl(storeRendition(medium));
+            renditions.setSmallUrl(storeRendition(small));
+            renditionsRepository.save(renditions);
+
+            // The user may have switched to this image before the renditions were ready
+            attachToUsers(renditions);
+            renditionTimer.record(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
+            log.info("Created renditions for {} in {} ms", sourceUrl, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to create renditions for {}: {}", sourceUrl, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(source);
+            } catch (IOException e) {
+                log.warn("Could not delete {}: {}", source, e.getMessage());
+            }
+        }
+    }
+
+    // The bulk update bypasses the entities, so the search index is refreshed from the updated rows
+    private void attachToUsers(ProfileImageRenditions renditions) {
+        int updated = userRepository.updateProfileImageRenditions(renditions.getSourceUrl(),
+                renditions.getSmallUrl(), renditions.getMediumUrl(), renditions.getLargeUrl());
+        if (updated > 0) {
+            userRepository.findByProfileImageUrl(renditions.getSourceUrl()).forEach(userSearchIndex::index);
+        }
+    }
+
+    // Null if no reader understands the file; refuses images above MAX_PIXELS before decoding
+    static BufferedImage decode(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    throw new IOException("Image too large to scale");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fits the image in a size x size box, halving repeatedly first so downscaling stays smooth
+    static BufferedImage scaleToFit(BufferedImage image, int size) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = Math.min(1.0, (double) size / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = image;
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private String storeRendition(BufferedImage image) throws IOException {
+        boolean alpha = image.getColorModel().hasAlpha();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, alpha ? "png" : "jpg", out);
+        StoredMedia media = mediaStorage.store(new ByteArrayInputStream(out.toByteArray()), RENDITION_FOLDER,
+                alpha ? "image/png" : "image/jpeg");
+        return media.getUrl();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
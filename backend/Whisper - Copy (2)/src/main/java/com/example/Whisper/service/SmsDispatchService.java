@@ -0,0 +1,96 @@
+package com.example.Whisper.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends SMS through the configured {@link SmsService} on a small fixed pool fed by a
+ * bounded queue, so callers never block on the provider. Each destination number may
+ * only be messaged once per {@code sms.dispatch.min-interval-seconds}.
+ */
+@Service
+@Slf4j
+public class SmsDispatchService {
+
+    private final SmsService smsService;
+    private final ThreadPoolExecutor executor;
+    private final long minIntervalNanos;
+
+    // Destination phone number -> earliest System.nanoTime() at which it may be messaged again
+    private final ConcurrentHashMap<String, Long> nextAllowedSend = new ConcurrentHashMap<>();
+
+    public SmsDispatchService(SmsService smsService,
+                              @Value("${sms.dispatch.threads:4}") int threads,
+                              @Value("${sms.dispatch.queue-capacity:1000}") int queueCapacity,
+                              @Value("${sms.dispatch.min-interval-seconds:30}") long minIntervalSeconds) {
+        this.smsService = smsService;
+        this.minIntervalNanos = TimeUnit.SECONDS.toNanos(minIntervalSeconds);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sms-dispatch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<Boolean> sendSms(String phoneNumber, String message) {
+        if (!tryAcquire(phoneNumber)) {
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("Too many SMS requests for this number. Please try again later."));
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> smsService.sendSms(phoneNumber, message), executor);
+        } catch (RejectedExecutionException e) {
+            // Queue is full, give the slot back so the caller can retry
+            nextAllowedSend.remove(phoneNumber);
+            log.warn("SMS queue full, rejecting message to: {}", phoneNumber);
+            return CompletableFuture.failedFuture(new RuntimeException("SMS service is busy. Please try again later."));
+        }
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    private boolean tryAcquire(String phoneNumber) {
+        long now = System.nanoTime();
+        boolean[] acquired = new boolean[1];
+        nextAllowedSend.compute(phoneNumber, (key, nextAllowed) -> {
+            if (nextAllowed != null && now - nextAllowed < 0) {
+                return nextAllowed;
+            }
+            acquired[0] = true;
+            return now + minIntervalNanos;
+        });
+        return acquired[0];
+    }
+
+    // Drop rate-limit entries that have already expired so the map stays small
+    @Scheduled(fixedRate = 60000)
+    public void evictExpiredEntries() {
+        long now = System.nanoTime();
+        nextAllowedSend.values().removeIf(nextAllowed -> now - nextAllowed >= 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.Whisper.service;
+
+public class StoredMedia {
+    private final String key;
+    private final String url;
+    private final long size;
+
+    public StoredMedia(String key, String url, long size) {
+        this.key = key;
+        this.url = url;
+        this.size = size;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.Whisper.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Shared meter definitions so every upload path reports under the same names
+final class UploadMetrics {
+
+    private UploadMetrics() {
+    }
+
+    static Timer uploadTimer(MeterRegistry meterRegistry, String type) {
+        return Timer.builder("whisper.uploads")
+                .description("Handling an upload request")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    static DistributionSummary uploadBytes(MeterRegistry meterRegistry, String type) {
+        return DistributionSummary.builder("whisper.uploads.bytes")
+                .description("Bytes received per upload request")
+                .baseUnit("bytes")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.Whisper.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Tells which unique constraint on users a failed insert or update hit, by the constraint
+ * name or, when the driver reports only the key, the column.
+ */
+final class UserConstraints {
+
+    static final String EMAIL = "uk_users_email";
+    static final String PHONE_NUMBER = "uk_users_phone_number";
+    static final String USER_NAME = "uk_users_user_name";
+
+    private UserConstraints() {
+    }
+
+    static boolean violated(DataIntegrityViolationException e, String constraint) {
+        String detail = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+        String column = constraint.substring("uk_users_".length());
+        return detail.contains(constraint) || detail.contains("(" + column + ")");
+    }
+}
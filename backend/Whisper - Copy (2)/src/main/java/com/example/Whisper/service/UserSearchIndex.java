@@ -0,0 +1,146 @@
+package com.example.Whisper.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.Whisper.dto.UserSearchDTO;
+import com.example.Whisper.model.User;
+import com.example.Whisper.repositoty.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory prefix index over usernames and full names for typeahead search.
+ *
+ * Terms are kept in a sorted skip list keyed by "term\0userId", so a prefix query is
+ * a range scan from the prefix to the first key past it, and registrations or profile
+ * edits update the index in O(log n) without rebuilding it. The index is built once
+ * at startup. The {@code online} flag in results is as of the last index update.
+ */
+@Service
+@Slf4j
+public class UserSearchIndex {
+
+    private static final char SEPARATOR = '\0';
+
+    private final UserRepository userRepository;
+
+    private final ConcurrentSkipListMap<String, Long> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, UserSearchDTO> users = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserSearchIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        terms.clear();
+        users.clear();
+        for (UserSearchDTO user : userRepository.findAllForSearchIndex()) {
+            add(user);
+        }
+        log.info("User search index built: {} users, {} terms in {} ms",
+                users.size(), terms.size(), System.currentTimeMillis() - start);
+    }
+
+    public List<UserSearchDTO> search(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Every key starting with the prefix sorts below prefix + Character.MAX_VALUE
+        ConcurrentNavigableMap<String, Long> matches = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long id : matches.values()) {
+            ids.add(id);
+            if (ids.size() >= limit) {
+                break;
+            }
+        }
+
+        List<UserSearchDTO> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            UserSearchDTO user = users.get(id);
+            if (user != null) {
+                results.add(user);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Indexes the user's current name fields, replacing any previous entry. Inside a
+     * transaction the update is applied after commit so rolled back changes never show up.
+     */
+    public void index(User user) {
+        UserSearchDTO dto = new UserSearchDTO(user.getId(), user.getUserName(), user.getFullname(),
+                user.getPhoneNumber(), user.getProfileImageUrl(), user.getProfileImageSmallUrl(), user.isOnline());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(dto);
+                }
+            });
+        } else {
+            add(dto);
+        }
+    }
+
+    private synchronized void add(UserSearchDTO user) {
+        UserSearchDTO previous = users.put(user.getId(), user);
+        if (previous != null) {
+            for (String term : termsOf(previous)) {
+                terms.remove(term + SEPARATOR + previous.getId());
+            }
+        }
+        for (String term : termsOf(user)) {
+            terms.put(term + SEPARATOR + user.getId(), user.getId());
+        }
+    }
+
+    // The username, the full name, and each word of the full name so "smi" finds "John Smith"
+    private Set<String> termsOf(UserSearchDTO user) {
+        Set<String> result = new LinkedHashSet<>();
+        addTerm(result, user.getUserName());
+        addTerm(result, user.getFullname());
+        if (user.getFullname() != null) {
+            for (String word : user.getFullname().split("\\s+")) {
+                addTerm(result, word);
+            }
+        }
+        return result;
+    }
+
+    private void addTerm(Set<String> result, String value) {
+        String term = normalize(value);
+        if (!term.isEmpty()) {
+            result.add(term);
+        }
+    }
+
+    private String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().toLowerCase(Locale.ROOT).replace(String.valueOf(SEPARATOR), "");
+    }
+}
@@ -1,44 +1,79 @@
 package com.example.Whisper.service;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.Whisper.dto.ChatDTO;
 import com.example.Whisper.dto.ContactDTO;
 import com.example.Whisper.dto.ContactRequest;
 import com.example.Whisper.dto.UserDto;
+import com.example.Whisper.dto.UserSearchDTO;
 import com.example.Whisper.model.Contact;
 import com.example.Whisper.model.User;
 import com.example.Whisper.repositoty.ContactRepository;
 import com.example.Whisper.repositoty.UserRepository;
+import com.example.Whisper.util.PhoneNumbers;
 
 @Service
 public class UserService {
 
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final UserRepository userRepository;
     private final ContactRepository contactRepository;
+    private final UserSearchIndex userSearchIndex;
+    private final ContactBlockIndex contactBlockIndex;
+    private final ProfileImageService profileImageService;
 
     @Autowired
-    public UserService(UserRepository userRepository, ContactRepository contactRepository) {
+    public UserService(UserRepository userRepository, ContactRepository contactRepository,
+                       UserSearchIndex userSearchIndex, ContactBlockIndex contactBlockIndex,
+                       ProfileImageService profileImageService) {
         this.userRepository = userRepository;
         this.contactRepository = contactRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.contactBlockIndex = contactBlockIndex;
+        this.profileImageService = profileImageService;
     }
 
     public Optional<User> findByPhoneNumber(String phoneNumber) {
-        return userRepository.findByPhoneNumber(phoneNumber);
+        return userRepository.findByPhoneNumber(PhoneNumbers.normalize(phoneNumber));
     }
 
 //    public List<User> findAllByPhoneNumber(String phoneNumber) {
 //        return userRepository.findByPhoneNumberContaining(phoneNumber);
 //    }
 
+    public List<UserSearchDTO> searchByName(String query, int limit) {
+        return userSearchIndex.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS));
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSearchDTO> searchByPhoneNumber(String phoneNumber, int page, int size) {
+        // Keep only digits and '+', which also keeps LIKE wildcards out of the pattern
+        String fragment = phoneNumber == null ? "" : phoneNumber.replaceAll("[^0-9+]", "");
+        if (fragment.isEmpty()) {
+            return List.of();
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_SEARCH_RESULTS);
+        return userRepository.searchByPhoneNumberFragment(fragment, PageRequest.of(Math.max(page, 0), pageSize));
+    }
+
     public Contact addContact(String phone, String otherPhone, String contactName) {
         User user = userRepository.findByPhoneNumber(phone)
                 .orElseThrow(() -> new RuntimeException("User not Found"));
+        otherPhone = PhoneNumbers.normalize(otherPhone);
+        if (otherPhone.isEmpty()) {
+            throw new RuntimeException("Phone number is required");
+        }
 //        User contactUser = userRepository.findByPhoneNumber(otherPhone).orElseThrow(() -> new RuntimeException("User Not Found"));
         Optional<Contact> existingContact = contactRepository.findByUserAndPhoneNumber(user, otherPhone);
 
@@ -56,19 +91,18 @@ public class UserService {
         return contactRepository.save(contact);
     }
 
+    @Transactional(readOnly = true)
     public Set<ContactDTO> getAllContacts(String phone){
-       User user = userRepository.findByPhoneNumber(phone)
+       long userId = userRepository.findIdByPhoneNumber(phone)
                .orElseThrow(() -> new RuntimeException("User not Found"));
 
-       return user.getContactList().stream()
-               .map(contact -> {
-                   // Find the contact user by phone number to get profile picture
-                   User contactUser = userRepository.findByPhoneNumber(contact.getPhoneNumber()).orElse(null);
-                   return new ContactDTO(contact, contactUser);
-               })
+       // One query for all contacts and their registered users instead of a lookup per contact
+       return contactRepository.findContactsWithUsers(userId).stream()
+               .map(row -> new ContactDTO((Contact) row[0], (User) row[1]))
                .collect(Collectors.toSet());
     }
 
+    @Transactional(readOnly = true)
     public Set<ChatDTO> getAllChats(String phone){
         User user = userRepository.findByPhoneNumber(phone)
                 .orElseThrow(() -> new RuntimeException("User not Found"));
@@ -92,6 +126,7 @@ public class UserService {
                 user.getContactList().remove(contact);
                 contactRepository.delete(contact);
                 userRepository.save(user);
+                contactBlockIndex.update(user.getId(), contact.getPhoneNumber(), false);
                 return true;
             }
         }
@@ -113,7 +148,9 @@ public class UserService {
                 if (isBlocked != null) {
                     contact.setBlocked(isBlocked);
                 }
-                return contactRepository.save(contact);
+                contact = contactRepository.save(contact);
+                contactBlockIndex.update(user.getId(), contact.getPhoneNumber(), contact.isBlocked());
+                return contact;
             }
         }
         return null;
@@ -129,7 +166,9 @@ public class UserService {
             // Check if the contact belongs to the user
             if (contact.getUser().getId()==user.getId()) {
                 contact.setBlocked(!contact.isBlocked());
-                return contactRepository.save(contact);
+                contact = contactRepository.save(contact);
+                contactBlockIndex.update(user.getId(), contact.getPhoneNumber(), contact.isBlocked());
+                return contact;
             }
         }
         return null;
@@ -140,7 +179,10 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not Found"));
         
         user.setProfileImageUrl(profileImageUrl);
-        return userRepository.save(user);
+        profileImageService.applyRenditions(user);
+        user = userRepository.save(user);
+        userSearchIndex.index(user);
+        return user;
     }
 
     public User updateProfile(String phone, String userName, String fullname, String description) {
@@ -156,8 +198,17 @@ public class UserService {
         if (description != null) {
             user.setDiscription(description.trim());
         }
-        
-        return userRepository.save(user);
+
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (UserConstraints.violated(e, UserConstraints.USER_NAME)) {
+                throw new RuntimeException("Username already taken. Please choose a different username.", e);
+            }
+            throw e;
+        }
+        userSearchIndex.index(user);
+        return user;
     }
 
     public UserDto convertToDto(User user) {
@@ -170,6 +221,9 @@ public class UserService {
         dto.setOnline(user.isOnline());
         dto.setLastSeen(user.getLastSeen());
         dto.setProfileImageUrl(user.getProfileImageUrl());
+        dto.setProfileImageSmallUrl(user.getProfileImageSmallUrl());
+        dto.setProfileImageMediumUrl(user.getProfileImageMediumUrl());
+        dto.setProfileImageLargeUrl(user.getProfileImageLargeUrl());
         return dto;
     }
 
@@ -3,23 +3,165 @@ package com.example.Whisper.service;
 import com.example.Whisper.dto.MessageDTO;
 import com.example.Whisper.dto.TypingIndicatorDTO;
 import com.example.Whisper.dto.UserStatusDTO;
+import com.example.Whisper.jfr.BrokerFanoutEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpSubscription;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class WebSocketService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final ChatMembershipService chatMembershipService;
+    private final ContactBlockIndex contactBlockIndex;
+    private final SimpUserRegistry userRegistry;
+    private final int topicMaxMembers;
+    private final Timer topicFanoutTimer;
+    private final Timer queueFanoutTimer;
+    private final DistributionSummary fanoutRecipients;
 
     @Autowired
-    public WebSocketService(SimpMessagingTemplate messagingTemplate) {
+    public WebSocketService(SimpMessagingTemplate messagingTemplate, ChatMembershipService chatMembershipService,
+                            ContactBlockIndex contactBlockIndex, SimpUserRegistry userRegistry,
+                            @Value("${chat.fanout.topic-max-members:100}") int topicMaxMembers,
+                            MeterRegistry meterRegistry) {
         this.messagingTemplate = messagingTemplate;
+        this.chatMembershipService = chatMembershipService;
+        this.contactBlockIndex = contactBlockIndex;
+        this.userRegistry = userRegistry;
+        this.topicMaxMembers = topicMaxMembers;
+        this.topicFanoutTimer = fanoutTimer(meterRegistry, "topic");
+        this.queueFanoutTimer = fanoutTimer(meterRegistry, "user-queue");
+        this.fanoutRecipients = DistributionSummary.builder("whisper.websocket.fanout.recipients")
+                .description("Chat members a message is fanned out to")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Timer fanoutTimer(MeterRegistry meterRegistry, String mode) {
+        return Timer.builder("whisper.websocket.fanout")
+                .description("Handing a chat message to the broker for all members")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
-    // Send message to specific chat
+    // Send message to specific chat. Small chats go out on the chat topic; large groups, and
+    // groups where a member blocked the sender, go to each member's own queue instead, which
+    // skips blockers and lets a member's frames be routed per session. Per-member sends cost
+    // more broker work than one topic send (see ChatFanoutBenchmark), hence the size threshold.
+    // A message takes exactly one of the two paths, so clients subscribe to both
+    // /topic/chat/{id} and /user/queue/chat
     public void sendMessageToChat(Long chatId, MessageDTO message) {
-        messagingTemplate.convertAndSend("/topic/chat/" + chatId, message);
+        BrokerFanoutEvent event = new BrokerFanoutEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long[] members = chatMembershipService.getParticipantIds(chatId);
+        long[] blockers = contactBlockIndex.getBlockerIds(message.getSenderPhone());
+        fanoutRecipients.record(members.length);
+
+        if (members.length <= topicMaxMembers && !anyBlocked(members, blockers)) {
+            messagingTemplate.convertAndSend("/topic/chat/" + chatId, message);
+            topicFanoutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            commitFanoutEvent(event, chatId, message, members.length, false);
+            return;
+        }
+
+        // Serialized once and sent as is to every member, instead of converting per send
+        Message<?> frame = messagingTemplate.getMessageConverter()
+                .toMessage(message, SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE).getMessageHeaders());
+        for (long memberId : members) {
+            if (Arrays.binarySearch(blockers, memberId) >= 0) {
+                continue;
+            }
+            String phone = chatMembershipService.getPhoneNumber(memberId);
+            if (phone == null) {
+                continue;
+            }
+            if (frame != null) {
+                messagingTemplate.send(userQueue(phone), frame);
+            } else {
+                messagingTemplate.convertAndSendToUser(phone, "/queue/chat", message);
+            }
+        }
+        queueFanoutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        commitFanoutEvent(event, chatId, message, members.length, true);
+    }
+
+    // Ends a user's live subscriptions to /topic/chat/{id} and its sub-topics. Membership is
+    // only checked at SUBSCRIBE, so without this a removed member keeps receiving the chat
+    public void unsubscribeFromChat(String phone, long chatId) {
+        SimpUser user = userRegistry.getUser(phone);
+        if (user == null) {
+            return;
+        }
+        String topic = "/topic/chat/" + chatId;
+        for (SimpSession session : user.getSessions()) {
+            for (SimpSubscription subscription : session.getSubscriptions()) {
+                String destination = subscription.getDestination();
+                if (!destination.equals(topic) && !destination.startsWith(topic + "/")) {
+                    continue;
+                }
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+                accessor.setSessionId(session.getId());
+                accessor.setSubscriptionId(subscription.getId());
+                accessor.setDestination(destination);
+                messagingTemplate.getMessageChannel()
+                        .send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+            }
+        }
+    }
+
+    // Same destination convertAndSendToUser builds
+    private String userQueue(String phone) {
+        return messagingTemplate.getUserDestinationPrefix() + StringUtils.replace(phone, "/", "%2F") + "/queue/chat";
+    }
+
+    private void commitFanoutEvent(BrokerFanoutEvent event, long chatId, MessageDTO message,
+                                   int recipients, boolean perUserQueues) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.chatId = chatId;
+            event.messageId = message.getId();
+            event.recipients = recipients;
+            event.perUserQueues = perUserQueues;
+            event.contentLength = message.getContent() != null ? message.getContent().length() : 0;
+            event.commit();
+        }
+    }
+
+    // Both arrays are sorted, so this is a single merge pass
+    private boolean anyBlocked(long[] members, long[] blockers) {
+        int i = 0;
+        int j = 0;
+        while (i < members.length && j < blockers.length) {
+            if (members[i] == blockers[j]) {
+                return true;
+            }
+            if (members[i] < blockers[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
     }
 
     // Send private message to specific user
@@ -0,0 +1,43 @@
+package com.example.Whisper.service.impl;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.example.Whisper.service.MediaStorage;
+import com.example.Whisper.service.StoredMedia;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+@Service
+@ConditionalOnProperty(name = "media.storage", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryMediaStorage implements MediaStorage {
+
+    private final Cloudinary cloudinary;
+
+    @Autowired
+    public CloudinaryMediaStorage(Cloudinary cloudinary) {
+        this.cloudinary = cloudinary;
+    }
+
+    // The Cloudinary client only streams from files, so spool the upload to a temp file first
+    @Override
+    public StoredMedia store(InputStream content, String folder, String contentType) throws IOException {
+        Path temp = Files.createTempFile("whisper-upload-", ".tmp");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Map uploadResult = cloudinary.uploader().upload(temp.toFile(), ObjectUtils.asMap("folder", folder));
+            return new StoredMedia((String) uploadResult.get("public_id"),
+                    (String) uploadResult.get("secure_url"),
+                    Files.size(temp));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.Whisper.service.impl;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import com.example.Whisper.service.SmsService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Posts SMS messages as JSON to a plain HTTP endpoint instead of Twilio.
+ * Enable with {@code sms.provider=http} and point {@code sms.http.url} at a local
+ * stub to load-test SMS OTP without the live provider.
+ */
+@Service
+@ConditionalOnProperty(name = "sms.provider", havingValue = "http")
+@Slf4j
+public class HttpSmsService implements SmsService {
+
+    private final RestClient restClient;
+
+    public HttpSmsService(@Value("${sms.http.url:http://localhost:8089/sms}") String url) {
+        this.restClient = RestClient.builder().baseUrl(url).build();
+    }
+
+    @Override
+    public boolean sendSms(String phoneNumber, String message) {
+        try {
+            restClient.post()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("to", phoneNumber, "body", message))
+                    .retrieve()
+                    .toBodilessEntity();
+
+            log.debug("SMS posted to HTTP stub for: {}", phoneNumber);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to post SMS to HTTP stub for: {}, Error: {}", phoneNumber, e.getMessage());
+            return false;
+        }
+    }
+}
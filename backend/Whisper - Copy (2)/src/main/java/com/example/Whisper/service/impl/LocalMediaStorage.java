@@ -0,0 +1,136 @@
+package com.example.Whisper.service.impl;
+
+import com.example.Whisper.service.MediaStorage;
+import com.example.Whisper.service.StoredMedia;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed media store on the local filesystem, for self-hosted deployments
+ * that should not depend on Cloudinary.
+ *
+ * Each file is keyed by the SHA-256 of its bytes plus an extension derived from the
+ * content type, so identical uploads are stored once. The stream is hashed while it is
+ * written to a temp file through a file channel, then moved into place under a two
+ * character shard directory; if the key already exists the temp file is dropped.
+ * Files are never modified after they are written, which lets MediaController serve
+ * them with a strong ETag and an immutable cache lifetime.
+ */
+@Service
+@ConditionalOnProperty(name = "media.storage", havingValue = "local")
+public class LocalMediaStorage implements MediaStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]{1,5}");
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalMediaStorage(@Value("${media.local.dir:./media}") String dir,
+                             @Value("${media.local.base-url:/media}") String baseUrl) {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    // The folder only matters for Cloudinary; here identical content shares one file whatever the folder
+    @Override
+    public StoredMedia store(InputStream content, String folder, String contentType) throws IOException {
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, ".upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            ReadableByteChannel in = Channels.newChannel(content);
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer.array(), 0, buffer.limit());
+                    while (buffer.hasRemaining()) {
+                        size += out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                out.force(false);
+            }
+
+            String key = HexFormat.of().formatHex(digest.digest()) + "." + extensionFor(contentType);
+            Path target = resolve(key);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Stored concurrently by another upload of the same content
+                }
+            }
+            return new StoredMedia(key, baseUrl + "/" + key, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Path of a stored key, or null if the key is not one this store could have produced
+    public Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            return null;
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    static String extensionFor(String contentType) {
+        if (contentType == null) {
+            return "bin";
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int parameters = type.indexOf(';');
+        if (parameters >= 0) {
+            type = type.substring(0, parameters).trim();
+        }
+        switch (type) {
+            case "image/jpeg":
+                return "jpg";
+            case "image/png":
+                return "png";
+            case "image/gif":
+                return "gif";
+            case "image/webp":
+                return "webp";
+            case "video/mp4":
+                return "mp4";
+            case "audio/mpeg":
+                return "mp3";
+            case "application/pdf":
+                return "pdf";
+            default:
+                return "bin";
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -4,11 +4,14 @@ import com.example.Whisper.service.SmsService;
 import com.twilio.Twilio;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 @Service
+@ConditionalOnProperty(name = "sms.provider", havingValue = "twilio", matchIfMissing = true)
 @Slf4j
 public class TwilioSmsService implements SmsService {
 
@@ -21,14 +24,21 @@ public class TwilioSmsService implements SmsService {
     @Value("${twilio.phone.number}")
     private String fromPhoneNumber;
 
+    private PhoneNumber from;
+
+    // Twilio.init configures a process-wide client, so do it once instead of per message
+    @PostConstruct
+    public void init() {
+        Twilio.init(accountSid, authToken);
+        from = new PhoneNumber(fromPhoneNumber);
+    }
+
     @Override
     public boolean sendSms(String phoneNumber, String message) {
         try {
-            Twilio.init(accountSid, authToken);
-
             Message.creator(
                     new PhoneNumber(phoneNumber),
-                    new PhoneNumber(fromPhoneNumber),
+                    from,
                     message
             ).create();
 
@@ -39,4 +49,4 @@ public class TwilioSmsService implements SmsService {
             return false;
         }
     }
-}
\ No newline at end of file
+}
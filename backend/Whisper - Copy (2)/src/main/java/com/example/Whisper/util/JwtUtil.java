@@ -1,5 +1,6 @@
 package com.example.Whisper.util;
 
+import com.example.Whisper.jfr.JwtValidationEvent;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -60,15 +61,20 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token) {
+        JwtValidationEvent event = new JwtValidationEvent();
+        event.begin();
         try {
             Jwts.parserBuilder()
                     .setSigningKey(getSigningKey())
                     .build()
                     .parseClaimsJws(token);
+            event.valid = true;
             return true;
         } catch (JwtException | IllegalArgumentException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
+            log.warn("Invalid JWT token: {}", e.getMessage());
             return false;
+        } finally {
+            event.commit();
         }
     }
 
@@ -0,0 +1,23 @@
+package com.example.Whisper.util;
+
+/**
+ * The one form phone numbers are stored in. Every path that writes a phone number
+ * (registration, adding and importing contacts) or looks a user up by a typed number
+ * (starting chats, group members) normalizes it here, so the same number typed with
+ * spaces, dashes or brackets still matches. database_fix.sql brings older rows into this form.
+ */
+public final class PhoneNumbers {
+
+    private PhoneNumbers() {
+    }
+
+    // Strips spaces, dashes and brackets; keeps digits and a leading '+'
+    public static String normalize(String phoneNumber) {
+        if (phoneNumber == null) {
+            return "";
+        }
+        String trimmed = phoneNumber.trim();
+        String digits = trimmed.replaceAll("[^0-9]", "");
+        return trimmed.startsWith("+") && !digits.isEmpty() ? "+" + digits : digits;
+    }
+}
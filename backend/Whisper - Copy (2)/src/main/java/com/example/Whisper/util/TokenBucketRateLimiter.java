@@ -0,0 +1,88 @@
+package com.example.Whisper.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket rate limiter keyed by an arbitrary string (email, phone number, IP).
+ *
+ * Each bucket is a single AtomicLong holding its "theoretical arrival time": the
+ * instant at which the bucket would be full again. Taking a token is one CAS, and
+ * refill is computed lazily from the clock, so there are no locks and no timer per
+ * bucket. Buckets live in a fixed number of stripes so eviction can sweep one stripe
+ * at a time without touching the rest.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final LongAdder rejected = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketRateLimiter(int capacity, long refillPeriod, TimeUnit unit) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.nanosPerToken = Math.max(1, unit.toNanos(refillPeriod) / capacity);
+        this.burstNanos = nanosPerToken * capacity;
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    public boolean tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    boolean tryAcquire(String key, long now) {
+        AtomicLong bucket = stripeFor(key).computeIfAbsent(key, k -> new AtomicLong(now - burstNanos));
+        while (true) {
+            long fullAt = bucket.get();
+            // A bucket that has been idle longer than its burst is simply full
+            long start = fullAt - now < 0 ? now : fullAt;
+            long next = start + nanosPerToken;
+            if (next - now > burstNanos) {
+                rejected.increment();
+                return false;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes buckets that have refilled completely; they are indistinguishable
+     * from a fresh bucket, so dropping them loses no state.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            stripe.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> stripeFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (STRIPES - 1)];
+    }
+}
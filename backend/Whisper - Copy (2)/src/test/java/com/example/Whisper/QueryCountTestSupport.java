@@ -0,0 +1,172 @@
+package com.example.Whisper;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.Whisper.model.Chat;
+import com.example.Whisper.model.Contact;
+import com.example.Whisper.model.Message;
+import com.example.Whisper.model.User;
+import com.example.Whisper.repositoty.ContactRepository;
+import com.example.Whisper.repositoty.MessageRepository;
+import com.example.Whisper.repositoty.UserRepository;
+import com.example.Whisper.service.ChatService;
+import com.example.Whisper.service.EmailService;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Base class for the query-count tests. Boots the application against an embedded Postgres
+ * with the DataSource wrapped in a counting proxy. Counts are per thread, so statements from
+ * the scheduled indexer and other background work are not included; MockMvc requests and
+ * direct handler calls run on the test thread.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(QueryCountTestSupport.CountingDataSourceConfig.class)
+public abstract class QueryCountTestSupport {
+
+    // One server for the whole test run; every test creates its own users, so no cleanup is needed
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @MockitoBean
+    protected EmailService emailService;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected ContactRepository contactRepository;
+
+    @Autowired
+    protected MessageRepository messageRepository;
+
+    @Autowired
+    protected ChatService chatService;
+
+    @FunctionalInterface
+    protected interface SqlAction {
+        void run() throws Exception;
+    }
+
+    // Number of SQL statements the action executes on this thread
+    protected static long countStatements(SqlAction action) throws Exception {
+        QueryCountHolder.clear();
+        action.run();
+        return QueryCountHolder.getGrandTotal().getTotal();
+    }
+
+    /**
+     * Builds the scenario at each size and counts the statements of the returned action,
+     * failing if the count is not the same at every size. The first size is also run once
+     * beforehand so one-time work (such as loading caches) is not counted.
+     */
+    protected static void assertStatementsIndependentOf(String dimension, IntFunction<SqlAction> scenario,
+                                                        int... sizes) throws Exception {
+        countStatements(scenario.apply(sizes[0]));
+
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int size : sizes) {
+            SqlAction action = scenario.apply(size);
+            counts.put(size, countStatements(action));
+        }
+        long first = counts.get(sizes[0]);
+        assertTrue(counts.values().stream().allMatch(count -> count == first),
+                "Statement count changes with the number of " + dimension + " (size=count): " + counts);
+    }
+
+    protected User newUser() {
+        long n = SEQUENCE.incrementAndGet();
+        String suffix = String.format("%08d", n);
+        User user = new User();
+        user.setUserName("qc_" + suffix);
+        user.setFullname("Query Count " + n);
+        user.setEmail("qc" + suffix + "@example.com");
+        user.setPhoneNumber("+7" + suffix);
+        user.setLastSeen(LocalDateTime.now());
+        return userRepository.save(user);
+    }
+
+    protected Chat newDirectChat(User user, User other) {
+        return chatService.startChat(user.getPhoneNumber(), other.getPhoneNumber());
+    }
+
+    protected void addMessages(Chat chat, User sender, int count) {
+        for (int i = 0; i < count; i++) {
+            Message message = new Message();
+            message.setChat(chat);
+            message.setSender(sender);
+            message.setContent("Message " + i);
+            message.setTimeSend(LocalDateTime.now());
+            messageRepository.save(message);
+        }
+    }
+
+    protected Contact addContact(User owner, User contactUser) {
+        Contact contact = new Contact();
+        contact.setUser(owner);
+        contact.setPhoneNumber(contactUser.getPhoneNumber());
+        contact.setContactName(contactUser.getFullname());
+        return contactRepository.save(contact);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    // May sit on top of, or under, the application's own sql-timing proxy
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource proxy
+                            && "query-count".equals(proxy.getProxyConfig().getDataSourceName()))) {
+                        return ProxyDataSourceBuilder.create(dataSource).name("query-count").countQuery().build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
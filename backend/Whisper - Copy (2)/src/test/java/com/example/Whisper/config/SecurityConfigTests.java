@@ -0,0 +1,34 @@
+package com.example.Whisper.config;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.Whisper.QueryCountTestSupport;
+
+// The scrape endpoint needs no token on the management port and stays closed on the application port
+class SecurityConfigTests extends QueryCountTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusIsOpenOnlyOnTheManagementPort() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(request -> {
+                    request.setLocalPort(8080);
+                    return request;
+                }))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(request -> {
+                    request.setLocalPort(8081);
+                    return request;
+                }))
+                // The mock context starts no management server to serve it, only the filter chain is checked
+                .andExpect(status().is(allOf(not(401), not(403))));
+    }
+}
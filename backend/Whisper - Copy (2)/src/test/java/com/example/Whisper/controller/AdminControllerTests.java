@@ -0,0 +1,73 @@
+package com.example.Whisper.controller;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.model.User;
+import com.example.Whisper.perf.LatencyStats;
+import com.example.Whisper.perf.PerfReportService;
+
+// Runs on the query-count setup for its embedded Postgres and shared application context
+class AdminControllerTests extends QueryCountTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LatencyStats latencyStats;
+
+    @Autowired
+    private PerfReportService perfReportService;
+
+    @Test
+    void perfReportsRequestLatencySqlPoolAndSessions() throws Exception {
+        User owner = newUser();
+        addContact(owner, newUser());
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/user/getcontacts").with(user(owner.getPhoneNumber())))
+                    .andExpect(status().isOk());
+        }
+        latencyStats.rotate();
+
+        // The shared context has no admins configured, so the report is read as one directly
+        MockMvc adminMockMvc = MockMvcBuilders
+                .standaloneSetup(new AdminController(perfReportService, Set.of(owner.getPhoneNumber())))
+                .build();
+        adminMockMvc.perform(get("/admin/perf").accept(MediaType.APPLICATION_JSON)
+                        .principal(new UsernamePasswordAuthenticationToken(owner.getPhoneNumber(), null, List.of())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rest[*].name", hasItem("GET /user/getcontacts")))
+                .andExpect(jsonPath("$.slowQueries", not(empty())))
+                .andExpect(jsonPath("$.connectionPool.max", greaterThan(0)))
+                .andExpect(jsonPath("$.webSocketSessions.total").value(0));
+    }
+
+    @Test
+    void perfRequiresLogin() throws Exception {
+        mockMvc.perform(get("/admin/perf"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void perfIsForbiddenToEveryoneWhenNoAdminsAreConfigured() throws Exception {
+        mockMvc.perform(get("/admin/perf").with(user(newUser().getPhoneNumber())))
+                .andExpect(status().isForbidden());
+    }
+}
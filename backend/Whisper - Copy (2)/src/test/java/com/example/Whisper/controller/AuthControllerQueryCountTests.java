@@ -0,0 +1,70 @@
+package com.example.Whisper.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Registration relies on the unique constraints and login on a single fetch (user-028)
+class AuthControllerQueryCountTests extends QueryCountTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void registerIsASingleInsert() throws Exception {
+        String email = "register" + System.nanoTime() + "@example.com";
+        postJson("/auth/send-registration-otp", Map.of("email", email));
+        String otp = sentOtp(email);
+
+        long statements = countStatements(() -> postJson("/auth/register", Map.of(
+                "email", email,
+                "phoneNumber", "+8" + System.nanoTime(),
+                "userName", "register" + System.nanoTime(),
+                "fullname", "Register Test",
+                "otp", otp)));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void loginIsOneSelectAndOneUpdate() throws Exception {
+        User user = newUser();
+        postJson("/auth/send-login-otp", Map.of("email", user.getEmail()));
+        String otp = sentOtp(user.getEmail());
+
+        long statements = countStatements(() -> postJson("/auth/login", Map.of("email", user.getEmail(), "otp", otp)));
+
+        assertEquals(2, statements);
+    }
+
+    private void postJson(String path, Object body) throws Exception {
+        mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk());
+    }
+
+    private String sentOtp(String email) {
+        ArgumentCaptor<String> otp = ArgumentCaptor.forClass(String.class);
+        verify(emailService).sendOtpEmail(eq(email), otp.capture(), anyString());
+        return otp.getValue();
+    }
+}
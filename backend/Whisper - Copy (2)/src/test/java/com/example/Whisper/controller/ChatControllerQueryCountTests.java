@@ -0,0 +1,72 @@
+package com.example.Whisper.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.dto.GroupChatDTO;
+import com.example.Whisper.model.User;
+
+class ChatControllerQueryCountTests extends QueryCountTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Finding or creating a direct chat is a lookup on the participant key (user-030)
+    @Test
+    void startChatDoesNotScanExistingChats() throws Exception {
+        assertStatementsIndependentOf("existing chats", size -> {
+            User owner = newUser();
+            for (int i = 0; i < size; i++) {
+                newDirectChat(owner, newUser());
+            }
+            User other = newUser();
+            return () -> startChat(owner, other);
+        }, 1, 10, 40);
+    }
+
+    @Test
+    void reopeningAChatDoesNotScanExistingChats() throws Exception {
+        assertStatementsIndependentOf("existing chats", size -> {
+            User owner = newUser();
+            for (int i = 0; i < size; i++) {
+                newDirectChat(owner, newUser());
+            }
+            User other = newUser();
+            newDirectChat(owner, other);
+            return () -> startChat(owner, other);
+        }, 1, 10, 40);
+    }
+
+    @Test
+    void getGroupDoesNotQueryPerMember() throws Exception {
+        assertStatementsIndependentOf("group members", size -> {
+            User creator = newUser();
+            List<String> members = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                members.add(newUser().getPhoneNumber());
+            }
+            GroupChatDTO group = chatService.createGroup(creator.getPhoneNumber(), "Group", members);
+            return () -> mockMvc.perform(get("/chats/group/" + group.getId()).with(user(creator.getPhoneNumber())))
+                    .andExpect(status().isOk());
+        }, 2, 10, 50);
+    }
+
+    private void startChat(User user, User other) throws Exception {
+        mockMvc.perform(post("/chats/start")
+                        .with(user(user.getPhoneNumber()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"otherUserPhone\":\"" + other.getPhoneNumber() + "\"}"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.Whisper.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.Whisper.service.StoredMedia;
+import com.example.Whisper.service.impl.LocalMediaStorage;
+
+class MediaControllerTests {
+
+    @TempDir
+    Path dir;
+
+    private MockMvc mockMvc;
+    private byte[] content;
+    private StoredMedia media;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        LocalMediaStorage storage = new LocalMediaStorage(dir.toString(), "/media");
+        content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        media = storage.store(new ByteArrayInputStream(content), "test_uploads", "image/png");
+        mockMvc = MockMvcBuilders.standaloneSetup(new MediaController(storage)).build();
+    }
+
+    @Test
+    void servesWholeFileWithCacheHeaders() throws Exception {
+        MvcResult result = mockMvc.perform(get(media.getUrl()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "image/png"))
+                .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        assertArrayEquals(content, result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void servesSingleRange() throws Exception {
+        MvcResult result = mockMvc.perform(get(media.getUrl()).header("Range", "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 100-199/1000"))
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 200), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void answersMatchingEtagWithNotModified() throws Exception {
+        String etag = mockMvc.perform(get(media.getUrl())).andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get(media.getUrl()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void rejectsUnsatisfiableRangeAndUnknownKeys() throws Exception {
+        mockMvc.perform(get(media.getUrl()).header("Range", "bytes=5000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */1000"));
+        mockMvc.perform(get("/media/" + "0".repeat(64) + ".png"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.Whisper.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.dto.GroupChatDTO;
+import com.example.Whisper.model.Chat;
+import com.example.Whisper.model.User;
+
+class MessageControllerQueryCountTests extends QueryCountTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void sendDoesNotLoadChatHistory() throws Exception {
+        assertStatementsIndependentOf("messages", size -> {
+            User sender = newUser();
+            Chat chat = newDirectChat(sender, newUser());
+            addMessages(chat, sender, size);
+            return () -> send(sender, chat.getId());
+        }, 1, 20, 100);
+    }
+
+    @Test
+    void sendToGroupDoesNotQueryPerMember() throws Exception {
+        assertStatementsIndependentOf("group members", size -> {
+            User sender = newUser();
+            List<String> members = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                members.add(newUser().getPhoneNumber());
+            }
+            GroupChatDTO group = chatService.createGroup(sender.getPhoneNumber(), "Group", members);
+            return () -> send(sender, group.getId());
+        }, 2, 10, 50);
+    }
+
+    @Test
+    void getChatMessagesDoesNotQueryPerMessage() throws Exception {
+        assertStatementsIndependentOf("messages", size -> {
+            User user = newUser();
+            User other = newUser();
+            Chat chat = newDirectChat(user, other);
+            addMessages(chat, user, size);
+            addMessages(chat, other, size);
+            return () -> mockMvc.perform(get("/api/messages/chat/" + chat.getId()).with(user(user.getPhoneNumber())))
+                    .andExpect(status().isOk());
+        }, 1, 20, 100);
+    }
+
+    @Test
+    void unreadCountDoesNotQueryPerMessage() throws Exception {
+        assertStatementsIndependentOf("messages", size -> {
+            User user = newUser();
+            User other = newUser();
+            Chat chat = newDirectChat(user, other);
+            addMessages(chat, other, size);
+            return () -> mockMvc.perform(get("/api/messages/chat/" + chat.getId() + "/unread-count/" + user.getPhoneNumber())
+                            .with(user(user.getPhoneNumber())))
+                    .andExpect(status().isOk());
+        }, 1, 20, 100);
+    }
+
+    @Test
+    void markChatReadDoesNotQueryPerMessage() throws Exception {
+        assertStatementsIndependentOf("unread messages", size -> {
+            User user = newUser();
+            User other = newUser();
+            Chat chat = newDirectChat(user, other);
+            addMessages(chat, other, size);
+            return () -> mockMvc.perform(put("/api/messages/chat/" + chat.getId() + "/mark-read")
+                            .with(user(user.getPhoneNumber()))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"userPhone\":\"" + user.getPhoneNumber() + "\"}"))
+                    .andExpect(status().isOk());
+        }, 1, 20, 100);
+    }
+
+    @Test
+    void markChatReadOnlyMarksTheOtherParticipantsMessages() throws Exception {
+        User user = newUser();
+        User other = newUser();
+        Chat chat = newDirectChat(user, other);
+        addMessages(chat, other, 3);
+        addMessages(chat, user, 2);
+
+        mockMvc.perform(put("/api/messages/chat/" + chat.getId() + "/mark-read")
+                        .with(user(user.getPhoneNumber()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userPhone\":\"" + user.getPhoneNumber() + "\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals(0L, messageRepository.countUnreadMessagesInChat(user, chat));
+        assertEquals(2L, messageRepository.countUnreadMessagesInChat(other, chat));
+    }
+
+    private void send(User sender, long chatId) throws Exception {
+        mockMvc.perform(post("/api/messages/chat/" + chatId + "/send")
+                        .with(user(sender.getPhoneNumber()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"Hello\"}"))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.Whisper.controller;
+
+import java.security.Principal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.dto.MessageDTO;
+import com.example.Whisper.model.Chat;
+import com.example.Whisper.model.Message;
+import com.example.Whisper.model.User;
+
+// The STOMP handlers are called directly, the way the inbound channel invokes them
+class MessageWebSocketControllerQueryCountTests extends QueryCountTestSupport {
+
+    @Autowired
+    private MessageWebSocketController controller;
+
+    @Test
+    void sendDoesNotLoadChatHistory() throws Exception {
+        assertStatementsIndependentOf("messages", size -> {
+            User sender = newUser();
+            Chat chat = newDirectChat(sender, newUser());
+            addMessages(chat, sender, size);
+            Principal principal = sender::getPhoneNumber;
+            return () -> {
+                MessageDTO message = new MessageDTO();
+                message.setContent("Hello");
+                controller.sendMessage(chat.getId(), message, principal);
+            };
+        }, 1, 20, 100);
+    }
+
+    @Test
+    void readReceiptDoesNotLoadChatHistory() throws Exception {
+        assertStatementsIndependentOf("messages", size -> {
+            User reader = newUser();
+            User other = newUser();
+            Chat chat = newDirectChat(reader, other);
+            addMessages(chat, other, size);
+            Message last = messageRepository.findByChatOrderByTimeSendAsc(chat).get(size - 1);
+            Principal principal = reader::getPhoneNumber;
+            return () -> {
+                MessageDTO read = new MessageDTO();
+                read.setId(last.getId());
+                controller.markMessageAsRead(chat.getId(), read, principal);
+            };
+        }, 1, 20, 100);
+    }
+}
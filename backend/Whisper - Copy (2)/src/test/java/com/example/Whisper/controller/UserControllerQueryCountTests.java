@@ -0,0 +1,86 @@
+package com.example.Whisper.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.dto.UserSearchDTO;
+import com.example.Whisper.model.Chat;
+import com.example.Whisper.model.User;
+import com.example.Whisper.service.UserService;
+
+class UserControllerQueryCountTests extends QueryCountTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void getContactsDoesNotQueryPerContact() throws Exception {
+        assertStatementsIndependentOf("contacts", size -> {
+            User owner = newUser();
+            for (int i = 0; i < size; i++) {
+                addContact(owner, newUser());
+            }
+            return () -> mockMvc.perform(get("/user/getcontacts").with(user(owner.getPhoneNumber())))
+                    .andExpect(status().isOk());
+        }, 1, 10, 50);
+    }
+
+    @Test
+    void getChatsDoesNotQueryPerChat() throws Exception {
+        assertStatementsIndependentOf("chats", size -> {
+            User owner = newUser();
+            for (int i = 0; i < size; i++) {
+                User other = newUser();
+                Chat chat = newDirectChat(owner, other);
+                addMessages(chat, other, 3);
+                addContact(owner, other);
+            }
+            return () -> mockMvc.perform(get("/user/getchats").with(user(owner.getPhoneNumber())))
+                    .andExpect(status().isOk());
+        }, 1, 10, 30);
+    }
+
+    @Test
+    void getChatsDoesNotQueryPerMessage() throws Exception {
+        assertStatementsIndependentOf("messages", size -> {
+            User owner = newUser();
+            User other = newUser();
+            Chat chat = newDirectChat(owner, other);
+            addMessages(chat, other, size);
+            addMessages(chat, owner, size);
+            return () -> mockMvc.perform(get("/user/getchats").with(user(owner.getPhoneNumber())))
+                    .andExpect(status().isOk());
+        }, 1, 20, 100);
+    }
+
+    @Test
+    void phoneSearchPagesNeitherOverlapNorSkip() {
+        for (int i = 0; i < 7; i++) {
+            newUser();
+        }
+        List<UserSearchDTO> first = userService.searchByPhoneNumber("+7", 0, 6);
+        List<UserSearchDTO> paged = new ArrayList<>();
+        paged.addAll(userService.searchByPhoneNumber("+7", 0, 3));
+        paged.addAll(userService.searchByPhoneNumber("+7", 1, 3));
+
+        assertEquals(6, first.size());
+        assertEquals(first.stream().map(UserSearchDTO::getId).toList(), paged.stream().map(UserSearchDTO::getId).toList());
+        for (int i = 1; i < paged.size(); i++) {
+            assertTrue(paged.get(i - 1).getId() < paged.get(i).getId());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.Whisper.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Whisper.model.User;
+import com.example.Whisper.repositoty.UserRepository;
+import com.example.Whisper.service.EmailService;
+import com.example.Whisper.service.UserService;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Two separate Postgres servers as primary and replica. The replica only gets the schema,
+ * never the primary's rows, so it behaves like a replica that is far behind: what a read
+ * finds tells which server it went to.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        // Replica checks are run by the tests
+        "datasource.replica.check-interval-ms=3600000",
+        // A cached user would answer the reads without reaching either server
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        // Hibernate writes the schema it creates on the primary so it can be applied to the replica
+        "spring.jpa.properties.jakarta.persistence.schema-generation.database.action=update",
+        "spring.jpa.properties.jakarta.persistence.schema-generation.scripts.action=create",
+        "spring.jpa.properties.jakarta.persistence.schema-generation.scripts.create-target=target/replica-schema.sql",
+        "spring.jpa.properties.hibernate.hbm2ddl.schema-generation.script.append=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.delimiter=;"
+})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadReplicaRoutingTests {
+
+    private static final EmbeddedPostgres PRIMARY = startPostgres();
+    private static final EmbeddedPostgres REPLICA = startPostgres();
+
+    private static boolean replicaSchemaCreated;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PRIMARY.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("datasource.replica.urls", () -> REPLICA.getJdbcUrl("postgres", "postgres"));
+    }
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private ReadReplicaRouter router;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void createReplicaSchema() throws Exception {
+        if (!replicaSchemaCreated) {
+            try (Connection connection = REPLICA.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                for (String sql : Files.readString(Path.of("target/replica-schema.sql")).split(";")) {
+                    if (!sql.isBlank()) {
+                        statement.execute(sql);
+                    }
+                }
+            }
+            replicaSchemaCreated = true;
+        }
+        router.checkReplicas();
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals(1, router.getUsableReplicaCount());
+        assertEquals(REPLICA.getPort(), serverPort(true));
+        assertEquals(PRIMARY.getPort(), serverPort(false));
+        assertEquals(PRIMARY.getPort(), jdbcTemplate.queryForObject("SELECT current_setting('port')::int", Integer.class));
+    }
+
+    @Test
+    @Order(2)
+    void readOnlyServiceMethodsReadFromTheReplica() {
+        User user = new User();
+        user.setUserName("replica_test");
+        user.setFullname("Replica Test");
+        user.setEmail("replica@example.com");
+        user.setPhoneNumber("+70000000001");
+        user.setLastSeen(LocalDateTime.now());
+        userRepository.save(user);
+
+        // A plain read sees the new user on the primary, the read-only service method does not
+        assertTrue(userService.findByPhoneNumber(user.getPhoneNumber()).isPresent());
+        RuntimeException e = assertThrows(RuntimeException.class, () -> userService.getAllContacts(user.getPhoneNumber()));
+        assertEquals("User not Found", e.getMessage());
+    }
+
+    @Test
+    @Order(3)
+    void repositoryFindersOutsideATransactionReadThePrimary() {
+        User user = new User();
+        user.setUserName("replica_finder");
+        user.setFullname("Replica Finder");
+        user.setEmail("replica-finder@example.com");
+        user.setPhoneNumber("+70000000002");
+        user.setLastSeen(LocalDateTime.now());
+        long id = userRepository.save(user).getId();
+
+        // Spring Data runs these in read-only transactions of their own
+        assertTrue(userRepository.findById(id).isPresent());
+        assertTrue(userRepository.existsById(id));
+        assertEquals(1, router.getUsableReplicaCount());
+    }
+
+    @Test
+    @Order(4)
+    void fallsBackToThePrimaryWhenTheReplicaIsDown() throws IOException {
+        REPLICA.close();
+        router.checkReplicas();
+
+        assertEquals(0, router.getUsableReplicaCount());
+        assertEquals(PRIMARY.getPort(), serverPort(true));
+    }
+
+    private Integer serverPort(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                jdbcTemplate.queryForObject("SELECT current_setting('port')::int", Integer.class));
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
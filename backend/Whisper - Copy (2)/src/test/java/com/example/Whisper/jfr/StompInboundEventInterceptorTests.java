@@ -0,0 +1,66 @@
+package com.example.Whisper.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class StompInboundEventInterceptorTests {
+
+    private final StompInboundEventInterceptor interceptor = new StompInboundEventInterceptor();
+
+    @Test
+    void recordsTheFrameOfEachHandledMessage() throws Exception {
+        byte[] payload = "{\"content\":\"hello\"}".getBytes(StandardCharsets.UTF_8);
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setDestination("/app/chat/42/send");
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        MessageHandler handler = handled -> { };
+
+        Path file = Files.createTempFile("stomp-inbound", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(StompInboundEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            interceptor.beforeHandle(message, null, handler);
+            interceptor.afterMessageHandled(message, null, handler, null);
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("whisper.StompInbound"))
+                    .toList();
+            assertEquals(1, events.size());
+            RecordedEvent event = events.get(0);
+            assertEquals("SEND", event.getString("command"));
+            assertEquals("/app/chat/42/send", event.getString("destination"));
+            assertEquals(42L, event.getLong("chatId"));
+            assertEquals(payload.length, event.getInt("payloadSize"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void parsesChatIdOnlyFromChatDestinations() {
+        assertEquals(7L, StompInboundEventInterceptor.parseChatId("/app/chat/7/typing"));
+        assertEquals(7L, StompInboundEventInterceptor.parseChatId("/app/chat/7"));
+        assertEquals(0L, StompInboundEventInterceptor.parseChatId("/app/user/status"));
+        assertEquals(0L, StompInboundEventInterceptor.parseChatId("/app/chat/abc/send"));
+        assertEquals(0L, StompInboundEventInterceptor.parseChatId(null));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.Whisper.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+class SamplingTurboFilterTests {
+
+    private final LoggerContext context = new LoggerContext();
+
+    @Test
+    void keepsOneInRateOfSampledEvents() {
+        SamplingTurboFilter filter = newFilter("com.example.noisy", 3);
+        Logger logger = context.getLogger("com.example.noisy.Filter");
+
+        int kept = 0;
+        for (int i = 0; i < 9; i++) {
+            if (filter.decide(null, logger, Level.WARN, "rejected {}", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertEquals(3, kept);
+    }
+
+    @Test
+    void leavesOtherLoggersLevelsAndChecksAlone() {
+        SamplingTurboFilter filter = newFilter("com.example.noisy", 1000);
+        Logger noisy = context.getLogger("com.example.noisy.Filter");
+        Logger other = context.getLogger("com.example.Other");
+
+        // First sampled event uses the only slot
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, noisy, Level.WARN, "rejected", null, null));
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.WARN, "rejected", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, noisy, Level.ERROR, "failed", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, noisy, Level.WARN, null, null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, noisy, Level.WARN, "rejected", null, null));
+    }
+
+    @Test
+    void disabledLevelsDoNotUseSamplingSlots() {
+        SamplingTurboFilter filter = newFilter("com.example.noisy", 2);
+        Logger logger = context.getLogger("com.example.noisy.Filter");
+        logger.setLevel(Level.INFO);
+
+        filter.decide(null, logger, Level.DEBUG, "details", null, null);
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.WARN, "rejected", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.WARN, "rejected", null, null));
+    }
+
+    private SamplingTurboFilter newFilter(String loggerName, int rate) {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setLogger(loggerName);
+        filter.setRate(rate);
+        filter.start();
+        return filter;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.Whisper.perf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.Whisper.dto.LatencySummaryDTO;
+
+class RollingLatencyHistogramsTests {
+
+    @Test
+    void reportsClosedSlicesUntilTheyLeaveTheWindow() {
+        RollingLatencyHistograms histograms = new RollingLatencyHistograms(2, 10);
+        for (int i = 1; i <= 100; i++) {
+            histograms.record("GET /a", TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertTrue(histograms.summaries().isEmpty(), "the open slice is not reported");
+
+        histograms.rotate();
+        List<LatencySummaryDTO> summaries = histograms.summaries();
+        assertEquals(1, summaries.size());
+        assertEquals(100, summaries.get(0).getCount());
+        assertEquals(50, summaries.get(0).getP50Ms(), 1);
+        assertEquals(99, summaries.get(0).getP99Ms(), 1);
+
+        histograms.rotate();
+        assertEquals(100, histograms.summaries().get(0).getCount());
+        histograms.rotate();
+        assertTrue(histograms.summaries().isEmpty());
+    }
+
+    @Test
+    void ignoresNewKeysPastTheLimit() {
+        RollingLatencyHistograms histograms = new RollingLatencyHistograms(1, 1);
+        histograms.record("a", 1_000);
+        histograms.record("b", 1_000);
+        histograms.rotate();
+        assertEquals(List.of("a"), histograms.summaries().stream().map(LatencySummaryDTO::getName).toList());
+    }
+
+    @Test
+    void stompDestinationsAreNormalized() {
+        assertEquals("/app/chat/{id}/send", StompLatencyInterceptor.normalize("/app/chat/42/send"));
+        assertEquals("/topic/chat/{id}", StompLatencyInterceptor.normalize("/topic/chat/7"));
+        assertEquals("/user/queue/errors", StompLatencyInterceptor.normalize("/user/queue/errors"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.Whisper.repositoty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.model.User;
+import com.example.Whisper.service.UserService;
+
+// Users by phone number and chat participants come from the second-level cache, and the
+// writes that change them leave no stale entries behind (user-050)
+class SecondLevelCacheTests extends QueryCountTestSupport {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void repeatedLookupByPhoneNumberRunsNoStatements() throws Exception {
+        User user = newUser();
+        userRepository.findByPhoneNumber(user.getPhoneNumber());
+
+        long statements = countStatements(() -> {
+            assertEquals(user.getId(), userRepository.findByPhoneNumber(user.getPhoneNumber()).orElseThrow().getId());
+            assertEquals(user.getId(), userRepository.findIdByPhoneNumber(user.getPhoneNumber()).orElseThrow());
+        });
+
+        assertEquals(0, statements);
+    }
+
+    @Test
+    void presenceAndProfileUpdatesReplaceTheCachedUser() {
+        User user = newUser();
+        userRepository.findByPhoneNumber(user.getPhoneNumber());
+
+        userService.updateUserOnlineStatus(user.getPhoneNumber(), true);
+        userService.updateProfile(user.getPhoneNumber(), null, "Renamed", null);
+
+        User cached = userRepository.findByPhoneNumber(user.getPhoneNumber()).orElseThrow();
+        assertTrue(cached.isOnline());
+        assertEquals("Renamed", cached.getFullname());
+    }
+
+    @Test
+    void bulkRenditionUpdateEvictsCachedUsers() {
+        User user = newUser();
+        userService.updateProfileImage(user.getPhoneNumber(), "https://img.example.com/" + user.getId() + ".png");
+        userRepository.findByPhoneNumber(user.getPhoneNumber());
+
+        userRepository.updateProfileImageRenditions("https://img.example.com/" + user.getId() + ".png",
+                "small", "medium", "large");
+
+        assertEquals("small", userRepository.findByPhoneNumber(user.getPhoneNumber()).orElseThrow().getProfileImageSmallUrl());
+    }
+
+    @Test
+    void groupMembershipChangesEvictCachedParticipants() {
+        User creator = newUser();
+        User member = newUser();
+        User joiner = newUser();
+        long chatId = chatService.createGroup(creator.getPhoneNumber(), "Cache", List.of(member.getPhoneNumber())).getId();
+        assertEquals(Set.of(creator.getId(), member.getId()), participantIds(chatId));
+
+        chatService.addGroupMember(creator.getPhoneNumber(), chatId, joiner.getPhoneNumber());
+        assertEquals(Set.of(creator.getId(), member.getId(), joiner.getId()), participantIds(chatId));
+
+        chatService.removeGroupMember(creator.getPhoneNumber(), chatId, member.getPhoneNumber());
+        assertEquals(Set.of(creator.getId(), joiner.getId()), participantIds(chatId));
+    }
+
+    private Set<Long> participantIds(long chatId) {
+        return transactionTemplate.execute(status -> chatRepository.findById(chatId).orElseThrow()
+                .getParticipents().stream().map(User::getId).collect(Collectors.toSet()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.Whisper.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.Principal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import com.example.Whisper.service.ChatMembershipService;
+
+class ChatMembershipInterceptorTests {
+
+    private static final String PHONE = "+10000000001";
+
+    private final ChatMembershipService chatMembershipService = mock(ChatMembershipService.class);
+    private final ChatMembershipInterceptor interceptor = new ChatMembershipInterceptor(chatMembershipService);
+
+    @Test
+    void participantsMaySubscribeAndSend() {
+        when(chatMembershipService.isParticipant(7L, PHONE)).thenReturn(true);
+
+        Message<byte[]> subscribe = frame(StompCommand.SUBSCRIBE, "/topic/chat/7");
+        Message<byte[]> send = frame(StompCommand.SEND, "/app/chat/7/send");
+        assertSame(subscribe, interceptor.preSend(subscribe, null));
+        assertSame(send, interceptor.preSend(send, null));
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/chat/8"), null));
+    }
+
+    @Test
+    void wildcardAndMalformedChatDestinationsAreRejected() {
+        when(chatMembershipService.isParticipant(7L, PHONE)).thenReturn(true);
+
+        for (String destination : new String[] {"/topic/chat/*", "/topic/chat/**", "/topic/**", "/topic/*/7", "/topic/chat/{id}",
+                "/topic/chat/7?", "/topic/chat/abc", "/topic/chat/", "/topic/chat/+7", "/topic/chat/99999999999999999999"}) {
+            MessageDeliveryException e = assertThrows(MessageDeliveryException.class,
+                    () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, destination), null), destination);
+            assertTrue(e.getMessage().startsWith("Wildcard") || e.getMessage().startsWith("Invalid"), e.getMessage());
+        }
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(frame(StompCommand.SEND, "/app/chat/x/send"), null));
+    }
+
+    @Test
+    void otherDestinationsAreLeftAlone() {
+        Message<byte[]> queue = frame(StompCommand.SUBSCRIBE, "/user/queue/chat");
+        Message<byte[]> status = frame(StompCommand.SEND, "/app/user/status");
+        assertSame(queue, interceptor.preSend(queue, null));
+        assertSame(status, interceptor.preSend(status, null));
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        Principal user = () -> PHONE;
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
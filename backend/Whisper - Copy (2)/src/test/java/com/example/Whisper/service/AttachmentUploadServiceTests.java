@@ -0,0 +1,188 @@
+package com.example.Whisper.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.dto.AttachmentUploadRequest;
+import com.example.Whisper.dto.AttachmentUploadStatus;
+import com.example.Whisper.model.Chat;
+import com.example.Whisper.model.Contact;
+import com.example.Whisper.model.Message;
+import com.example.Whisper.model.User;
+import com.example.Whisper.repositoty.AttachmentUploadRepository;
+import com.example.Whisper.service.impl.LocalMediaStorage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Chunk offsets, resuming, limits and completing, against a part file directory of its own
+class AttachmentUploadServiceTests extends QueryCountTestSupport {
+
+    private static final int MAX_CHUNK = 1024;
+    private static final int SIZE = 3000;
+
+    @TempDir
+    Path dir;
+
+    @Autowired
+    private AttachmentUploadRepository uploadRepository;
+
+    @Autowired
+    private ChatMembershipService chatMembershipService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private UserService userService;
+
+    private AttachmentUploadService uploads;
+    private LocalMediaStorage storage;
+    private User sender;
+    private User receiver;
+    private Chat chat;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalMediaStorage(dir.resolve("media").toString(), "/media");
+        uploads = new AttachmentUploadService(uploadRepository, userRepository, chatMembershipService, messageService,
+                storage, new SimpleMeterRegistry(), dir.resolve("parts").toString(), 10_000, MAX_CHUNK, 24);
+        sender = newUser();
+        receiver = newUser();
+        chat = newDirectChat(sender, receiver);
+        content = new byte[SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+    }
+
+    @Test
+    void rejectsChunkAtWrongOffset() throws Exception {
+        String id = start().getUploadId();
+        writeChunk(id, 0, MAX_CHUNK);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> uploads.writeChunk(sender.getPhoneNumber(), id, 0, new ByteArrayInputStream(content, 0, MAX_CHUNK)));
+        assertEquals("Expected offset " + MAX_CHUNK + " but got 0", e.getMessage());
+        assertEquals(MAX_CHUNK, status(id));
+    }
+
+    @Test
+    void resumesAfterAChunkThatBrokeOff() throws Exception {
+        String id = start().getUploadId();
+        InputStream brokenOff = new InputStream() {
+            private int read;
+
+            @Override
+            public int read() throws IOException {
+                if (read == 500) {
+                    throw new IOException("Connection reset");
+                }
+                return content[read++] & 0xff;
+            }
+        };
+        assertThrows(IOException.class, () -> uploads.writeChunk(sender.getPhoneNumber(), id, 0, brokenOff));
+
+        long offset = status(id);
+        assertTrue(offset <= 500, "offset " + offset);
+        while (offset < SIZE) {
+            offset = writeChunk(id, offset, (int) Math.min(MAX_CHUNK, SIZE - offset)).getOffset();
+        }
+        assertArrayEquals(content, storedContent(uploads.complete(sender.getPhoneNumber(), id)));
+    }
+
+    @Test
+    void rejectsOversizedChunkAndKeepsWhatFits() throws Exception {
+        String id = start().getUploadId();
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> uploads.writeChunk(sender.getPhoneNumber(), id, 0, new ByteArrayInputStream(content, 0, MAX_CHUNK + 1)));
+        assertEquals("Chunk exceeds the allowed size of " + MAX_CHUNK + " bytes", e.getMessage());
+        assertTrue(status(id) <= MAX_CHUNK);
+    }
+
+    @Test
+    void rejectsChunkWhileAnotherIsBeingWritten() throws Exception {
+        String id = start().getUploadId();
+
+        try (FileChannel channel = FileChannel.open(dir.resolve("parts").resolve(id + ".part"), StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> writeChunk(id, 0, MAX_CHUNK));
+            assertEquals("Another chunk of this upload is being written", e.getMessage());
+        }
+        assertEquals(MAX_CHUNK, writeChunk(id, 0, MAX_CHUNK).getOffset());
+    }
+
+    @Test
+    void completesOnlyOnce() throws Exception {
+        String id = uploadAll();
+
+        Message message = uploads.complete(sender.getPhoneNumber(), id);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> uploads.complete(sender.getPhoneNumber(), id));
+
+        assertEquals("Upload not found", e.getMessage());
+        assertEquals(1, messageRepository.findByChatOrderByTimeSendAsc(chat).size());
+        assertArrayEquals(content, storedContent(message));
+        assertTrue(Files.notExists(dir.resolve("parts").resolve(id + ".part")));
+    }
+
+    @Test
+    void failedSendKeepsTheUploadForAnotherComplete() throws Exception {
+        String id = uploadAll();
+        Contact contact = addContact(receiver, sender);
+        userService.toggleBlockContact(receiver.getPhoneNumber(), contact.getId());
+
+        assertThrows(RuntimeException.class, () -> uploads.complete(sender.getPhoneNumber(), id));
+        assertEquals(SIZE, status(id));
+
+        userService.toggleBlockContact(receiver.getPhoneNumber(), contact.getId());
+        assertArrayEquals(content, storedContent(uploads.complete(sender.getPhoneNumber(), id)));
+    }
+
+    private AttachmentUploadStatus start() throws IOException {
+        AttachmentUploadRequest request = new AttachmentUploadRequest();
+        request.setFileName("notes.bin");
+        request.setContentType("application/octet-stream");
+        request.setSize(SIZE);
+        return uploads.start(sender.getPhoneNumber(), chat.getId(), request);
+    }
+
+    private String uploadAll() throws IOException {
+        String id = start().getUploadId();
+        for (int offset = 0; offset < SIZE; offset += MAX_CHUNK) {
+            writeChunk(id, offset, Math.min(MAX_CHUNK, SIZE - offset));
+        }
+        return id;
+    }
+
+    private AttachmentUploadStatus writeChunk(String id, long offset, int length) throws IOException {
+        return uploads.writeChunk(sender.getPhoneNumber(), id, offset,
+                new ByteArrayInputStream(Arrays.copyOfRange(content, (int) offset, (int) offset + length)));
+    }
+
+    private long status(String id) throws IOException {
+        return uploads.getStatus(sender.getPhoneNumber(), id).getOffset();
+    }
+
+    private byte[] storedContent(Message message) throws IOException {
+        return Files.readAllBytes(storage.resolve(message.getAttachment().getStorageKey()));
+    }
+}
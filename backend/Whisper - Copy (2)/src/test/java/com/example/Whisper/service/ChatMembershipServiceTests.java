@@ -0,0 +1,100 @@
+package com.example.Whisper.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.Whisper.repositoty.ChatRepository;
+import com.example.Whisper.repositoty.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Loads run outside the map, an eviction during a load is not undone by it, and phone
+// numbers pushed out of the bounded index are read back from the repository
+class ChatMembershipServiceTests {
+
+    private final ChatRepository chatRepository = mock(ChatRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private ChatMembershipService membership;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.getCache()).thenReturn(mock(Cache.class));
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        membership = new ChatMembershipService(chatRepository, userRepository, entityManagerFactory, 2);
+    }
+
+    @Test
+    void slowLoadDoesNotBlockOtherChats() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(chatRepository.findParticipantIdsAndPhones(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return rows(1, 2);
+        });
+        when(chatRepository.findParticipantIdsAndPhones(2L)).thenReturn(rows(3, 4));
+
+        CompletableFuture<long[]> slow = CompletableFuture.supplyAsync(() -> membership.getParticipantIds(1));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        assertArrayEquals(new long[] {3, 4}, membership.getParticipantIds(2));
+
+        release.countDown();
+        assertArrayEquals(new long[] {1, 2}, slow.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void evictionDuringLoadIsNotUndone() {
+        when(chatRepository.findParticipantIdsAndPhones(1L)).thenAnswer(invocation -> {
+            membership.evict(1);
+            return rows(1, 2);
+        }).thenReturn(rows(1, 2, 3));
+
+        assertArrayEquals(new long[] {1, 2}, membership.getParticipantIds(1));
+        assertArrayEquals(new long[] {1, 2, 3}, membership.getParticipantIds(1));
+        assertArrayEquals(new long[] {1, 2, 3}, membership.getParticipantIds(1));
+        verify(chatRepository, times(2)).findParticipantIdsAndPhones(1L);
+    }
+
+    @Test
+    void phoneNumbersBeyondTheBoundAreReadBack() {
+        when(chatRepository.findParticipantIdsAndPhones(1L)).thenReturn(rows(1, 2, 3, 4, 5, 6));
+        for (long id = 1; id <= 6; id++) {
+            when(userRepository.findPhoneNumberById(id)).thenReturn(Optional.of(phone(id)));
+        }
+
+        membership.getParticipantIds(1);
+        for (long id = 1; id <= 6; id++) {
+            assertEquals(phone(id), membership.getPhoneNumber(id));
+        }
+        when(userRepository.findIdByPhoneNumber("+10000000009")).thenReturn(Optional.empty());
+        assertFalse(membership.isParticipant(1, "+10000000009"));
+    }
+
+    private static List<Object[]> rows(long... ids) {
+        return Arrays.stream(ids).mapToObj(id -> new Object[] {id, phone(id)}).toList();
+    }
+
+    private static String phone(long id) {
+        return "+1000000000" + id;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.Whisper.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.model.User;
+
+// Concurrent startChat calls for the same pair meet on the participant key's unique index (user-030)
+class ChatServiceConcurrencyTests extends QueryCountTestSupport {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void parallelStartChatCreatesOneChat() throws Exception {
+        User user = newUser();
+        User other = newUser();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                // Half the callers start the chat from each side
+                User from = i % 2 == 0 ? user : other;
+                User to = i % 2 == 0 ? other : user;
+                Callable<Long> call = () -> {
+                    start.await();
+                    return chatService.startChat(from.getPhoneNumber(), to.getPhoneNumber()).getId();
+                };
+                results.add(executor.submit(call));
+            }
+            start.countDown();
+
+            Set<Long> chatIds = new HashSet<>();
+            for (Future<Long> result : results) {
+                chatIds.add(result.get());
+            }
+            assertEquals(1, chatIds.size(), "Parallel startChat calls created chats " + chatIds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
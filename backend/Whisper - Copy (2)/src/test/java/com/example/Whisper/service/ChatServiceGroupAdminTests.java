@@ -0,0 +1,36 @@
+package com.example.Whisper.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.dto.GroupChatDTO;
+import com.example.Whisper.model.ChatRole;
+import com.example.Whisper.model.User;
+
+// Demoting an admin, like removing one, never leaves a group without an admin
+class ChatServiceGroupAdminTests extends QueryCountTestSupport {
+
+    @Test
+    void lastAdminCannotBeDemoted() {
+        User admin = newUser();
+        User member = newUser();
+        GroupChatDTO group = chatService.createGroup(admin.getPhoneNumber(), "Admins", List.of(member.getPhoneNumber()));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> chatService.updateGroupMemberRole(
+                admin.getPhoneNumber(), group.getId(), admin.getPhoneNumber(), ChatRole.MEMBER));
+        assertEquals("A group must keep at least one admin", e.getMessage());
+
+        chatService.updateGroupMemberRole(admin.getPhoneNumber(), group.getId(), member.getPhoneNumber(), ChatRole.ADMIN);
+        GroupChatDTO updated = chatService.updateGroupMemberRole(
+                admin.getPhoneNumber(), group.getId(), admin.getPhoneNumber(), ChatRole.MEMBER);
+        assertEquals(List.of(member.getPhoneNumber()), updated.getMembers().stream()
+                .filter(m -> m.getRole().equals(ChatRole.ADMIN.name()))
+                .map(GroupChatDTO.Member::getPhoneNumber)
+                .toList());
+    }
+}
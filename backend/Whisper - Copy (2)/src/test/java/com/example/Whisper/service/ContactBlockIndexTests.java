@@ -0,0 +1,60 @@
+package com.example.Whisper.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.Whisper.repositoty.ContactRepository;
+
+// Loads run outside the map, and a block change during a load is not undone by it
+class ContactBlockIndexTests {
+
+    private static final String SENDER = "+10000000001";
+
+    private final ContactRepository contactRepository = mock(ContactRepository.class);
+    private final ContactBlockIndex index = new ContactBlockIndex(contactRepository, 100);
+
+    @Test
+    void slowLoadDoesNotBlockOtherNumbers() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(contactRepository.findBlockerIds(SENDER)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(3L, 1L);
+        });
+        when(contactRepository.findBlockerIds("+10000000002")).thenReturn(List.of(4L));
+
+        CompletableFuture<long[]> slow = CompletableFuture.supplyAsync(() -> index.getBlockerIds(SENDER));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        assertArrayEquals(new long[] {4}, index.getBlockerIds("+10000000002"));
+
+        release.countDown();
+        assertArrayEquals(new long[] {1, 3}, slow.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void updateDuringLoadIsNotUndone() {
+        when(contactRepository.findBlockerIds(SENDER)).thenAnswer(invocation -> {
+            index.update(2, SENDER, true);
+            return List.of(1L);
+        }).thenReturn(List.of(1L, 2L));
+
+        assertArrayEquals(new long[] {1}, index.getBlockerIds(SENDER));
+        assertArrayEquals(new long[] {1, 2}, index.getBlockerIds(SENDER));
+
+        index.update(1, SENDER, false);
+        assertArrayEquals(new long[] {2}, index.getBlockerIds(SENDER));
+        verify(contactRepository, times(2)).findBlockerIds(SENDER);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.Whisper.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.dto.MessageSearchResultDTO;
+import com.example.Whisper.model.Chat;
+import com.example.Whisper.model.Message;
+import com.example.Whisper.model.User;
+
+// Messages saved before indexing are picked up by the indexer, and results stay within the
+// caller's own chats
+class MessageSearchServiceTests extends QueryCountTestSupport {
+
+    @Autowired
+    private MessageSearchService messageSearchService;
+
+    @Test
+    void findsIndexedMessagesInOwnChatsOnly() {
+        User sender = newUser();
+        User receiver = newUser();
+        User outsider = newUser();
+        Chat chat = newDirectChat(sender, receiver);
+        Chat otherChat = newDirectChat(outsider, newUser());
+
+        long first = save(chat, sender, "Lunch at the harbour tomorrow?");
+        long second = save(chat, receiver, "Sure, harbour lunch sounds good");
+        save(chat, sender, "Unrelated message");
+        long outsiders = save(otherChat, outsider, "Our own harbour plans");
+
+        messageSearchService.indexPending();
+
+        List<MessageSearchResultDTO> results = messageSearchService.search(receiver.getId(), "harbour lunch", 0, 10);
+        assertEquals(Set.of(first, second), ids(results));
+        assertTrue(results.stream().allMatch(result -> result.getChatId() == chat.getId()));
+
+        assertEquals(Set.of(outsiders), ids(messageSearchService.search(outsider.getId(), "harbour", 0, 10)));
+        assertEquals(List.of(), messageSearchService.search(receiver.getId(), "  ", 0, 10));
+    }
+
+    private long save(Chat chat, User sender, String content) {
+        Message message = new Message();
+        message.setChat(chat);
+        message.setSender(sender);
+        message.setContent(content);
+        message.setTimeSend(LocalDateTime.now());
+        return messageRepository.save(message).getId();
+    }
+
+    private static Set<Long> ids(List<MessageSearchResultDTO> results) {
+        return results.stream().map(MessageSearchResultDTO::getMessageId).collect(Collectors.toSet());
+    }
+}
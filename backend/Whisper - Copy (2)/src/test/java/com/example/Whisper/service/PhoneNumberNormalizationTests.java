@@ -0,0 +1,98 @@
+package com.example.Whisper.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.dto.ContactImportEntry;
+import com.example.Whisper.dto.GroupChatDTO;
+import com.example.Whisper.dto.RegisterRequest;
+import com.example.Whisper.dto.SendOtpRequest;
+import com.example.Whisper.model.Contact;
+import com.example.Whisper.model.User;
+
+// Registration, adding a contact and importing contacts store a number typed in different
+// ways as the same value, and starting chats or adding group members finds the user by it
+class PhoneNumberNormalizationTests extends QueryCountTestSupport {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void everyWritePathStoresTheSameNumber() {
+        String email = "normalize@example.com";
+        SendOtpRequest otpRequest = new SendOtpRequest();
+        otpRequest.setEmail(email);
+        authService.sendRegistrationOtp(otpRequest);
+        ArgumentCaptor<String> otp = ArgumentCaptor.forClass(String.class);
+        verify(emailService).sendOtpEmail(eq(email), otp.capture(), anyString());
+
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(email);
+        request.setPhoneNumber(" +7 (912) 345-67-89 ");
+        request.setUserName("normalize");
+        request.setFullname("Normalize Test");
+        request.setOtp(otp.getValue());
+        User registered = userRepository.findByPhoneNumber(authService.register(request).getUser().getPhoneNumber())
+                .orElseThrow();
+        assertEquals("+79123456789", registered.getPhoneNumber());
+
+        User owner = newUser();
+        // Requests run addContact with the session held open for the view
+        Contact added = transactionTemplate.execute(status ->
+                userService.addContact(owner.getPhoneNumber(), "+7 912 345 6789", "Added"));
+        assertEquals(registered.getPhoneNumber(), added.getPhoneNumber());
+
+        ContactImportEntry entry = new ContactImportEntry();
+        entry.setPhoneNumber("+7-912-345-67-89");
+        entry.setContactName("Imported");
+        List<String> registeredNumbers = contactService.importContacts(owner.getPhoneNumber(), List.of(entry))
+                .getRegisteredPhoneNumbers();
+
+        assertEquals(List.of(registered.getPhoneNumber()), registeredNumbers);
+        Contact contact = contactRepository.findByUserAndPhoneNumber(owner, registered.getPhoneNumber()).orElseThrow();
+        assertEquals(added.getId(), contact.getId());
+        assertEquals("Imported", contact.getContactName());
+    }
+
+    @Test
+    void chatsAndGroupsFindUsersByATypedNumber() {
+        User owner = newUser();
+        User other = newUser();
+        User member = newUser();
+
+        assertEquals(newDirectChat(owner, other).getId(),
+                chatService.startChat(owner.getPhoneNumber(), spaced(other.getPhoneNumber())).getId());
+
+        GroupChatDTO group = chatService.createGroup(owner.getPhoneNumber(), "Typed",
+                List.of(spaced(other.getPhoneNumber()), spaced(owner.getPhoneNumber())));
+        assertEquals(2, group.getMembers().size());
+        group = chatService.addGroupMember(owner.getPhoneNumber(), group.getId(), spaced(member.getPhoneNumber()));
+        assertEquals(3, group.getMembers().size());
+        group = chatService.removeGroupMember(owner.getPhoneNumber(), group.getId(), spaced(member.getPhoneNumber()));
+        assertEquals(2, group.getMembers().size());
+    }
+
+    // "+7 000-000 01" for "+70000000001"
+    private static String spaced(String phone) {
+        return phone.substring(0, 2) + " " + phone.substring(2, 5) + "-" + phone.substring(5, 8) + " " + phone.substring(8);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.Whisper.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.dto.UserSearchDTO;
+import com.example.Whisper.model.User;
+import com.example.Whisper.repositoty.ProfileImageRenditionsRepository;
+import com.example.Whisper.service.impl.LocalMediaStorage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Scaling, the decode size guard, and renditions that finish after the user switched images
+class ProfileImageServiceTests extends QueryCountTestSupport {
+
+    @TempDir
+    Path dir;
+
+    @Autowired
+    private ProfileImageRenditionsRepository renditionsRepository;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserService userService;
+
+    private ProfileImageService profileImageService;
+
+    @AfterEach
+    void shutdown() {
+        if (profileImageService != null) {
+            profileImageService.shutdown();
+        }
+    }
+
+    @Test
+    void scalesDownKeepingTheAspectRatio() {
+        BufferedImage scaled = ProfileImageService.scaleToFit(new BufferedImage(1000, 500, BufferedImage.TYPE_INT_RGB), 512);
+        assertEquals(512, scaled.getWidth());
+        assertEquals(256, scaled.getHeight());
+
+        BufferedImage portrait = ProfileImageService.scaleToFit(new BufferedImage(300, 1200, BufferedImage.TYPE_INT_RGB), 48);
+        assertEquals(12, portrait.getWidth());
+        assertEquals(48, portrait.getHeight());
+    }
+
+    @Test
+    void neverScalesUp() {
+        BufferedImage scaled = ProfileImageService.scaleToFit(new BufferedImage(30, 20, BufferedImage.TYPE_INT_RGB), 48);
+        assertEquals(30, scaled.getWidth());
+        assertEquals(20, scaled.getHeight());
+    }
+
+    @Test
+    void keepsTransparency() {
+        BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(100, 100, 0xffff0000);
+
+        BufferedImage scaled = ProfileImageService.scaleToFit(image, 48);
+
+        assertTrue(scaled.getColorModel().hasAlpha());
+        assertEquals(0, scaled.getRGB(0, 0) >>> 24);
+        assertFalse(ProfileImageService.scaleToFit(new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB), 48)
+                .getColorModel().hasAlpha());
+    }
+
+    @Test
+    void refusesToDecodeImagesAboveTheLimit() throws IOException {
+        // 1 bit per pixel keeps the 40 MP+ test image small in memory and on disk
+        Path huge = dir.resolve("huge.png");
+        ImageIO.write(new BufferedImage(8000, 5001, BufferedImage.TYPE_BYTE_BINARY), "png", huge.toFile());
+        Path notAnImage = Files.writeString(dir.resolve("notes.txt"), "not an image");
+
+        IOException e = assertThrows(IOException.class, () -> ProfileImageService.decode(huge));
+        assertEquals("Image too large to scale", e.getMessage());
+        assertNull(ProfileImageService.decode(notAnImage));
+    }
+
+    @Test
+    void renditionsFinishingAfterTheSwitchReachTheUserAndSearch() throws Exception {
+        // Holds the job before it stores its renditions, so the user switches first
+        CountDownLatch release = new CountDownLatch(1);
+        LocalMediaStorage local = new LocalMediaStorage(dir.resolve("media").toString(), "/media");
+        MediaStorage storage = (content, folder, contentType) -> {
+            if (folder.endsWith("renditions")) {
+                await(release);
+            }
+            return local.store(content, folder, contentType);
+        };
+        profileImageService = new ProfileImageService(storage, renditionsRepository, userRepository, userSearchIndex,
+                new SimpleMeterRegistry(), 1, 10);
+
+        User user = newUser();
+        String url = profileImageService.upload(new ByteArrayInputStream(png(400, 300)), "image/png").getUrl();
+        userService.updateProfileImage(user.getPhoneNumber(), url);
+        assertNull(indexed(user).getProfileImageSmallUrl());
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (indexed(user).getProfileImageSmallUrl() == null && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        String smallUrl = renditionsRepository.findBySourceUrl(url).orElseThrow().getSmallUrl();
+        assertNotNull(smallUrl);
+        assertEquals(smallUrl, indexed(user).getProfileImageSmallUrl());
+        assertEquals(smallUrl, userRepository.findById(user.getId()).orElseThrow().getProfileImageSmallUrl());
+    }
+
+    private UserSearchDTO indexed(User user) {
+        List<UserSearchDTO> results = userSearchIndex.search(user.getUserName(), 1);
+        assertEquals(user.getId(), results.get(0).getId());
+        return results.get(0);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.Whisper.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.Whisper.dto.OtpResponse;
+import com.example.Whisper.dto.SendOtpRequest;
+import com.example.Whisper.model.OtpType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SmsDispatchServiceTests {
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SmsDispatchService dispatcher;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void sendsOnThePoolAndReportsTheProviderResult() throws Exception {
+        dispatcher = new SmsDispatchService((phone, message) -> {
+            sent.add(phone + ": " + message);
+            return !phone.endsWith("9");
+        }, 2, 10, 30);
+
+        assertTrue(dispatcher.sendSms("+10000000001", "hello").get(5, TimeUnit.SECONDS));
+        assertEquals(false, dispatcher.sendSms("+10000000009", "hello").get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("+10000000001: hello", "+10000000009: hello"), sent);
+    }
+
+    @Test
+    void limitsEachDestinationToOneMessagePerInterval() throws Exception {
+        dispatcher = new SmsDispatchService(this::record, 2, 10, 30);
+
+        assertTrue(dispatcher.sendSms("+10000000001", "first").get(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> again = dispatcher.sendSms("+10000000001", "second");
+        assertTrue(dispatcher.sendSms("+10000000002", "other").get(5, TimeUnit.SECONDS));
+
+        ExecutionException e = assertThrowsExecution(again);
+        assertEquals("Too many SMS requests for this number. Please try again later.", e.getCause().getMessage());
+        assertEquals(List.of("+10000000001: first", "+10000000002: other"), sent);
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFullAndFreesTheNumber() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        dispatcher = new SmsDispatchService((phone, message) -> {
+            started.countDown();
+            await(release);
+            return record(phone, message);
+        }, 1, 1, 30);
+
+        CompletableFuture<Boolean> running = dispatcher.sendSms("+10000000001", "running");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = dispatcher.sendSms("+10000000002", "queued");
+        CompletableFuture<Boolean> rejected = dispatcher.sendSms("+10000000003", "rejected");
+
+        assertEquals("SMS service is busy. Please try again later.", assertThrowsExecution(rejected).getCause().getMessage());
+        assertEquals(1, dispatcher.getQueuedCount());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        // The rejected number was not charged against its interval
+        assertTrue(dispatcher.sendSms("+10000000003", "retried").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void loginOtpIsTextedThroughTheDispatcher() throws Exception {
+        CountDownLatch texted = new CountDownLatch(1);
+        dispatcher = new SmsDispatchService((phone, message) -> {
+            record(phone, message);
+            texted.countDown();
+            return true;
+        }, 1, 10, 30);
+        OtpService otpService = new OtpService(mock(EmailService.class), dispatcher, new SimpleMeterRegistry(), true);
+
+        SendOtpRequest request = new SendOtpRequest();
+        request.setEmail("sms@example.com");
+        request.setType(OtpType.LOGIN);
+        OtpResponse response = otpService.sendOtp(request, "+10000000001");
+
+        assertTrue(response.isSuccess());
+        assertTrue(texted.await(5, TimeUnit.SECONDS));
+        assertTrue(sent.get(0).matches("\\+10000000001: Your Whisper OTP for login is: \\d{6}"), sent.get(0));
+    }
+
+    private boolean record(String phone, String message) {
+        sent.add(phone + ": " + message);
+        return true;
+    }
+
+    private static ExecutionException assertThrowsExecution(CompletableFuture<Boolean> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e;
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        throw new AssertionError("Expected the send to fail");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
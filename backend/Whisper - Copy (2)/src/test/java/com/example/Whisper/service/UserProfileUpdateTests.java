@@ -0,0 +1,38 @@
+package com.example.Whisper.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.example.Whisper.QueryCountTestSupport;
+import com.example.Whisper.model.User;
+
+// Only a clash on the username constraint is reported as a taken username
+class UserProfileUpdateTests extends QueryCountTestSupport {
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void takenUsernameIsReportedAsSuch() {
+        User user = newUser();
+        User other = newUser();
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> userService.updateProfile(user.getPhoneNumber(), other.getUserName(), null, null));
+
+        assertEquals("Username already taken. Please choose a different username.", e.getMessage());
+    }
+
+    @Test
+    void otherIntegrityViolationsAreRethrown() {
+        User user = newUser();
+
+        // fullname is varchar(255)
+        assertThrows(DataIntegrityViolationException.class,
+                () -> userService.updateProfile(user.getPhoneNumber(), null, "x".repeat(300), null));
+    }
+}
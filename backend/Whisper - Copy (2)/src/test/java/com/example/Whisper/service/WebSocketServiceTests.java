@@ -0,0 +1,134 @@
+package com.example.Whisper.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import com.example.Whisper.dto.MessageDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// A chat message goes either to the chat topic or to each member's /queue/chat, never both,
+// and a removed member's topic subscriptions can be ended
+class WebSocketServiceTests {
+
+    private static final long CHAT_ID = 7;
+    private static final String SENDER = "+10000000001";
+
+    private final List<Message<?>> sent = new ArrayList<>();
+    private final DefaultSimpUserRegistry userRegistry = new DefaultSimpUserRegistry();
+    private ChatMembershipService chatMembershipService;
+    private ContactBlockIndex contactBlockIndex;
+    private WebSocketService webSocketService;
+    private MessageDTO message;
+
+    @BeforeEach
+    void setUp() {
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((frame, timeout) -> sent.add(frame));
+        messagingTemplate.setMessageConverter(new MappingJackson2MessageConverter());
+        chatMembershipService = mock(ChatMembershipService.class);
+        contactBlockIndex = mock(ContactBlockIndex.class);
+        webSocketService = new WebSocketService(messagingTemplate, chatMembershipService, contactBlockIndex, userRegistry,
+                3, new SimpleMeterRegistry());
+
+        message = new MessageDTO();
+        message.setChatId(CHAT_ID);
+        message.setSenderPhone(SENDER);
+        message.setContent("hello");
+
+        when(contactBlockIndex.getBlockerIds(SENDER)).thenReturn(new long[0]);
+        when(chatMembershipService.getPhoneNumber(any(Long.class)))
+                .thenAnswer(invocation -> "+2000000000" + invocation.getArgument(0));
+    }
+
+    @Test
+    void smallChatGoesToTheTopic() {
+        when(chatMembershipService.getParticipantIds(CHAT_ID)).thenReturn(new long[] {1, 2, 3});
+
+        webSocketService.sendMessageToChat(CHAT_ID, message);
+
+        assertEquals(List.of("/topic/chat/" + CHAT_ID), destinations());
+    }
+
+    @Test
+    void blockedSenderGoesToEveryMemberQueueExceptTheBlocker() {
+        when(chatMembershipService.getParticipantIds(CHAT_ID)).thenReturn(new long[] {1, 2, 3});
+        when(contactBlockIndex.getBlockerIds(SENDER)).thenReturn(new long[] {2});
+
+        webSocketService.sendMessageToChat(CHAT_ID, message);
+
+        assertEquals(List.of("/user/+20000000001/queue/chat", "/user/+20000000003/queue/chat"), destinations());
+    }
+
+    @Test
+    void largeGroupGoesToEveryMemberQueue() {
+        when(chatMembershipService.getParticipantIds(CHAT_ID)).thenReturn(LongStream.rangeClosed(1, 4).toArray());
+
+        webSocketService.sendMessageToChat(CHAT_ID, message);
+
+        assertEquals(List.of("/user/+20000000001/queue/chat", "/user/+20000000002/queue/chat",
+                "/user/+20000000003/queue/chat", "/user/+20000000004/queue/chat"), destinations());
+        for (Message<?> frame : sent) {
+            assertTrue(new String((byte[]) frame.getPayload(), StandardCharsets.UTF_8).contains("\"content\":\"hello\""));
+        }
+    }
+
+    @Test
+    void unsubscribesOnlyFromTheChatsTopics() {
+        Principal user = () -> SENDER;
+        userRegistry.onApplicationEvent(new SessionConnectedEvent(this, frame(SimpMessageType.CONNECT, user, null, null), user));
+        subscribe(user, "sub-0", "/topic/chat/" + CHAT_ID);
+        subscribe(user, "sub-1", "/topic/chat/" + CHAT_ID + "/typing");
+        subscribe(user, "sub-2", "/topic/chat/" + CHAT_ID + "0");
+        subscribe(user, "sub-3", "/user/queue/chat");
+
+        webSocketService.unsubscribeFromChat(SENDER, CHAT_ID);
+        webSocketService.unsubscribeFromChat("+19999999999", CHAT_ID);
+
+        assertTrue(sent.stream().allMatch(frame -> SimpMessageHeaderAccessor.getMessageType(frame.getHeaders())
+                == SimpMessageType.UNSUBSCRIBE && "session".equals(SimpMessageHeaderAccessor.getSessionId(frame.getHeaders()))));
+        assertEquals(Set.of("sub-0", "sub-1"), sent.stream()
+                .map(frame -> SimpMessageHeaderAccessor.getSubscriptionId(frame.getHeaders()))
+                .collect(Collectors.toSet()));
+    }
+
+    private void subscribe(Principal user, String subscriptionId, String destination) {
+        userRegistry.onApplicationEvent(new SessionSubscribeEvent(this,
+                frame(SimpMessageType.SUBSCRIBE, user, subscriptionId, destination), user));
+    }
+
+    private static Message<byte[]> frame(SimpMessageType type, Principal user, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId("session");
+        accessor.setUser(user);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private List<String> destinations() {
+        return sent.stream().map(frame -> SimpMessageHeaderAccessor.getDestination(frame.getHeaders())).toList();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.Whisper.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+// Against a stub HTTP server standing in for the SMS endpoint
+class HttpSmsServiceTests {
+
+    private final List<String> contentTypes = new CopyOnWriteArrayList<>();
+    private final List<Map<?, ?>> bodies = new CopyOnWriteArrayList<>();
+    private volatile int responseStatus = 200;
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/sms", exchange -> {
+            contentTypes.add(exchange.getRequestHeaders().getFirst("Content-Type"));
+            bodies.add(new ObjectMapper().readValue(exchange.getRequestBody(), Map.class));
+            exchange.sendResponseHeaders(responseStatus, -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/sms";
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void postsMessageAsJson() {
+        assertTrue(new HttpSmsService(url).sendSms("+10000000001", "Your OTP is 123456"));
+
+        assertEquals(List.of(Map.of("to", "+10000000001", "body", "Your OTP is 123456")), bodies);
+        assertTrue(contentTypes.get(0).startsWith("application/json"));
+    }
+
+    @Test
+    void reportsFailureOnErrorStatus() {
+        responseStatus = 503;
+
+        assertFalse(new HttpSmsService(url).sendSms("+10000000001", "Your OTP is 123456"));
+        assertEquals(1, bodies.size());
+    }
+
+    @Test
+    void reportsFailureWhenTheEndpointIsDown() {
+        server.stop(0);
+
+        assertFalse(new HttpSmsService(url).sendSms("+10000000001", "Your OTP is 123456"));
+        assertTrue(bodies.isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.Whisper.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.Whisper.service.StoredMedia;
+import com.sun.management.ThreadMXBean;
+
+class LocalMediaStorageTests {
+
+    private static final int UPLOADS = 100;
+    private static final long UPLOAD_SIZE = 10L * 1024 * 1024;
+
+    @TempDir
+    Path dir;
+
+    // 100 x 10 MB at once is 1 GB. Each upload thread must allocate far less than the file
+    // it stores, which fails as soon as anything buffers a whole upload in memory
+    @Test
+    void parallelUploadsAreStreamedToDisk() throws Exception {
+        LocalMediaStorage storage = new LocalMediaStorage(dir.toString(), "/media");
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Queue<Long> allocated = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(UPLOADS);
+        try {
+            List<Future<StoredMedia>> uploads = new ArrayList<>();
+            for (int i = 0; i < UPLOADS; i++) {
+                int seed = i;
+                uploads.add(pool.submit(() -> {
+                    long before = threads.getCurrentThreadAllocatedBytes();
+                    StoredMedia media = storage.store(new GeneratedInputStream(UPLOAD_SIZE, seed), "test_uploads", "image/png");
+                    allocated.add(threads.getCurrentThreadAllocatedBytes() - before);
+                    return media;
+                }));
+            }
+            Set<String> keys = new HashSet<>();
+            for (Future<StoredMedia> upload : uploads) {
+                StoredMedia media = upload.get();
+                assertEquals(UPLOAD_SIZE, media.getSize());
+                assertEquals(UPLOAD_SIZE, Files.size(storage.resolve(media.getKey())));
+                assertEquals("/media/" + media.getKey(), media.getUrl());
+                keys.add(media.getKey());
+            }
+            assertEquals(UPLOADS, keys.size());
+            long maxAllocated = allocated.stream().mapToLong(Long::longValue).max().orElseThrow();
+            assertTrue(maxAllocated < UPLOAD_SIZE / 10,
+                    "An upload allocated " + maxAllocated + " bytes for a " + UPLOAD_SIZE + " byte file");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws Exception {
+        LocalMediaStorage storage = new LocalMediaStorage(dir.toString(), "/media");
+        StoredMedia first = storage.store(new GeneratedInputStream(1024, 7), "profile_pictures", "image/jpeg");
+        StoredMedia second = storage.store(new GeneratedInputStream(1024, 7), "test_uploads", "image/jpeg");
+
+        assertEquals(first.getKey(), second.getKey());
+        assertTrue(first.getKey().matches("[0-9a-f]{64}\\.jpg"));
+        try (Stream<Path> files = Files.walk(dir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void resolveRejectsForeignKeys() {
+        LocalMediaStorage storage = new LocalMediaStorage(dir.toString(), "/media");
+        assertNull(storage.resolve("../etc/passwd"));
+        assertNull(storage.resolve("abc.jpg"));
+    }
+
+    // Produces bytes on demand so the test itself holds no upload in memory
+    private static class GeneratedInputStream extends InputStream {
+        private long remaining;
+        private final int seed;
+
+        GeneratedInputStream(long size, int seed) {
+            this.remaining = size;
+            this.seed = seed;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return (int) ((remaining + seed) & 0xFF);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = (int) Math.min(length, remaining);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) (remaining - i + seed);
+            }
+            remaining -= count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.Whisper.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTests {
+
+    @Test
+    void allowsBurstThenRefillsLazily() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 3, TimeUnit.SECONDS);
+        long now = 0;
+
+        assertTrue(limiter.tryAcquire("a", now));
+        assertTrue(limiter.tryAcquire("a", now));
+        assertTrue(limiter.tryAcquire("a", now));
+        assertFalse(limiter.tryAcquire("a", now));
+
+        // One token comes back per second
+        assertTrue(limiter.tryAcquire("a", now + TimeUnit.SECONDS.toNanos(1)));
+        assertFalse(limiter.tryAcquire("a", now + TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(2, limiter.getRejectedCount());
+    }
+
+    @Test
+    void keysAreIndependent() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, TimeUnit.MINUTES);
+
+        assertTrue(limiter.tryAcquire("a", 0));
+        assertFalse(limiter.tryAcquire("a", 0));
+        assertTrue(limiter.tryAcquire("b", 0));
+    }
+}
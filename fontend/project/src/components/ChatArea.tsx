@@ -54,6 +54,7 @@ interface Message {
     lastSeen: string;
     discription: string;
     profileImageUrl: string;
+    profileImageSmallUrl?: string | null;
   };
 }
 
@@ -363,6 +364,15 @@ export default function ChatArea({
           addMessageToChat(newMessage);
         });
 
+        // Large groups, and groups where a member blocked the sender, are delivered to each
+        // member's own queue instead of the chat topic; it carries every chat, so filter
+        client.subscribe("/user/queue/chat", (message: any) => {
+          const newMessage = JSON.parse(message.body);
+          if (newMessage.chatId === chatId) {
+            addMessageToChat(newMessage);
+          }
+        });
+
         // Subscribe to error messages
         client.subscribe("/user/queue/errors", (message: any) => {
           const error = JSON.parse(message.body);
@@ -772,6 +782,7 @@ export default function ChatArea({
               {!message.isOwn && (
                 <ProfileAvatar
                   src={message.sender?.profileImageUrl}
+                  smallSrc={message.sender?.profileImageSmallUrl}
                   alt={message.sender?.fullname || "User"}
                   size="sm"
                   fallbackText={
@@ -818,6 +829,7 @@ export default function ChatArea({
               {message.isOwn && (
                 <ProfileAvatar
                   src={user?.profileImageUrl}
+                  smallSrc={user?.profileImageSmallUrl}
                   alt="You"
                   size="sm"
                   fallbackText="You"
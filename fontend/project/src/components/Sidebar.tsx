@@ -53,6 +53,7 @@ interface ChatUser {
   lastSeen: string;
   discription: string;
   profileImageUrl: string;
+  profileImageSmallUrl?: string | null;
 }
 
 interface Message {
@@ -86,6 +87,7 @@ interface Chat {
   otherParticipantLastSeen?: string | null;
   otherParticipantOnline?: boolean; // Added last seen for the other participant
   otherParticipantProfileImageUrl?: string | null; // Profile image URL for the other participant
+  otherParticipantProfileImageSmallUrl?: string | null; // 48 px rendition of it
 }
 
 interface Story {
@@ -217,7 +219,38 @@ export default function Sidebar({ onChatSelect, onReady }: SidebarProps) {
     };
   }, [currentUserPhone, token]);
 
-  // Periodic refresh for online status updates
+  // One topic subscription per chat in the list. The server rejects wildcard
+  // subscriptions such as /topic/chat/*, so chats are subscribed by id
+  const chatSubscriptions = React.useRef(new Map<number, any>());
+  useEffect(() => {
+    if (!stompClient) return;
+    const subscriptions = chatSubscriptions.current;
+    const chatIds = new Set(chats.map((chat) => chat.id));
+
+    subscriptions.forEach((subscription, chatId) => {
+      if (!chatIds.has(chatId)) {
+        subscription.unsubscribe();
+        subscriptions.delete(chatId);
+      }
+    });
+    chatIds.forEach((chatId) => {
+      if (!subscriptions.has(chatId)) {
+        subscriptions.set(
+          chatId,
+          stompClient.subscribe(`/topic/chat/${chatId}`, (message: any) => {
+            handleNewMessage(JSON.parse(message.body));
+          })
+        );
+      }
+    });
+  }, [stompClient, chats]);
+
+  // Subscriptions belong to the client they were made on
+  useEffect(() => {
+    const subscriptions = chatSubscriptions.current;
+    return () => subscriptions.clear();
+  }, [stompClient]);
+
   useEffect(() => {
     if (!currentUserPhone || !token) return;
 
@@ -842,19 +875,9 @@ export default function Sidebar({ onChatSelect, onReady }: SidebarProps) {
           }
         );
 
-        // Also subscribe to general chat messages to see if we receive them
-        client.subscribe(`/topic/chat/*`, (message: any) => {
-          console.log("=== WebSocket message received (general topic) ===");
-          console.log("Raw message:", message);
-          console.log("Message body:", message.body);
-
-          const newMessage = JSON.parse(message.body);
-          console.log("Parsed message:", newMessage);
-
-          console.log(
-            "Processing message from general topic - calling handleNewMessage"
-          );
-          handleNewMessage(newMessage);
+        // Chat messages fanned out per member (large groups, or a member blocked the sender)
+        client.subscribe("/user/queue/chat", (message: any) => {
+          handleNewMessage(JSON.parse(message.body));
         });
 
         // Subscribe to error messages
@@ -1022,6 +1045,7 @@ export default function Sidebar({ onChatSelect, onReady }: SidebarProps) {
       <div className="w-16 bg-chatbg flex flex-col items-center py-4 space-y-8">
         <ProfileAvatar
           src={user?.profileImageUrl}
+          smallSrc={user?.profileImageSmallUrl}
           alt={currentUserName}
           size="md"
           fallbackText={currentUserName}
@@ -1113,6 +1137,7 @@ export default function Sidebar({ onChatSelect, onReady }: SidebarProps) {
                     >
                       <ProfileAvatar
                         src={result.profileImageUrl}
+                        smallSrc={result.profileImageSmallUrl}
                         alt={
                           result.fullname ||
                           result.userName ||
@@ -1224,6 +1249,7 @@ export default function Sidebar({ onChatSelect, onReady }: SidebarProps) {
                   <div className="relative flex-shrink-0">
                     <ProfileAvatar
                       src={chat.otherParticipantProfileImageUrl}
+                      smallSrc={chat.otherParticipantProfileImageSmallUrl}
                       alt={displayName}
                       size="lg"
                       fallbackText={displayName}
@@ -1,7 +1,11 @@
-import React, { useMemo } from 'react';
+import React, { useEffect, useMemo, useState } from 'react';
+
+// Sizes up to lg (48 px) are served by the 48 px rendition
+const SMALL_RENDITION_SIZES = ['xs', 'sm', 'md', 'lg'];
 
 const ProfileAvatar = ({ 
   src, 
+  smallSrc,
   alt, 
   size = 'md', 
   className = '',
@@ -58,17 +62,28 @@ const ProfileAvatar = ({
   const sizeClass = sizeClasses[size] || sizeClasses.md;
 
   // Check if image is valid
-  const hasValidImage = src && src !== 'null' && src !== 'undefined' && src !== '';
+  const isValid = (url) => url && url !== 'null' && url !== 'undefined' && url !== '';
+
+  // Prefer the 48 px rendition, falling back to the original if there is none or it fails to load
+  const [smallFailed, setSmallFailed] = useState(false);
+  useEffect(() => setSmallFailed(false), [smallSrc]);
+  const useSmall = isValid(smallSrc) && !smallFailed && SMALL_RENDITION_SIZES.includes(size);
+  const imageSrc = useSmall ? smallSrc : src;
+  const hasValidImage = isValid(imageSrc);
 
   return (
     <div className={`relative inline-block ${className}`}>
       {hasValidImage ? (
         // Show profile image
         <img
-          src={src}
+          src={imageSrc}
           alt={alt || 'Profile'}
           className={`${sizeClass} rounded-full object-cover border-2 border-gray-700`}
           onError={(e) => {
+            if (useSmall) {
+              setSmallFailed(true);
+              return;
+            }
             // Fallback to initials if image fails to load
             e.target.style.display = 'none';
             e.target.nextSibling.style.display = 'flex';